@@ -0,0 +1,64 @@
+package com.chess.bench;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece;
+
+//Fixed positions the benchmarks run on, so numbers stay comparable between runs
+public enum BenchmarkPositions {
+
+    //Open game after development, both sides castled
+    MIDDLEGAME(Alliance.WHITE,
+            "r.bq.rk." +
+            "ppp.bppp" +
+            "..np.n.." +
+            "....p..." +
+            "..B.P..." +
+            "..NP.N.." +
+            "PPP..PPP" +
+            "R.BQ.RK."),
+
+    //Rook and pawn against rook
+    ENDGAME(Alliance.WHITE,
+            "........" +
+            ".....k.." +
+            "........" +
+            "...r...." +
+            ".....P.." +
+            "........" +
+            ".....K.." +
+            "...R....");
+
+    private final Alliance moveMaker;
+    private final String layout;
+
+    BenchmarkPositions(final Alliance moveMaker, final String layout) {
+        this.moveMaker = moveMaker;
+        this.layout = layout;
+    }
+
+    //Layout lists the tiles from a8 to h1, upper case is white, lower case is black, '.' is empty
+    public Board createBoard() {
+        final Board.Builder builder = new Board.Builder();
+        for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++){
+            final char symbol = this.layout.charAt(tile);
+            if(symbol == '.'){
+                continue;
+            }
+            final Alliance alliance = Character.isUpperCase(symbol) ? Alliance.WHITE : Alliance.BLACK;
+            builder.setPiece(pieceType(symbol).createPiece(alliance, tile, false));
+        }
+        builder.setMoveMaker(this.moveMaker);
+        return builder.build();
+    }
+
+    private static Piece.PieceType pieceType(final char symbol) {
+        for(final Piece.PieceType pieceType : Piece.PieceType.values()){
+            if(pieceType.toString().charAt(0) == Character.toUpperCase(symbol)){
+                return pieceType;
+            }
+        }
+        throw new IllegalArgumentException("Unknown piece symbol: " + symbol);
+    }
+}
@@ -0,0 +1,73 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Fen;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+//Plays random games through Player.makeMove and reads back the FEN of every position they pass,
+//exits with status 1 if a FEN fails to load or loads as a different position. Random play leaves
+//pawns on the last rank as the engine does not promote, which is the case hand made FENs miss.
+//Usage: FenRoundTripCheck [games]
+public class FenRoundTripCheck {
+
+    private static final int MAX_PLIES = 300;
+    //Fixed so a failure can be replayed
+    private static final long SEED = 2024L;
+
+    public static void main(String[] args) {
+        final int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        final Random random = new Random(SEED);
+        long positions = 0;
+        int failures = 0;
+        for(int game = 0; game < games; game++){
+            Board board = Board.createStandardBoard();
+            for(int ply = 0; ply < MAX_PLIES; ply++){
+                final String fen = Fen.toFen(board);
+                positions++;
+                final String problem = roundTrip(board, fen);
+                if(problem != null){
+                    System.out.println("Game " + game + " ply " + ply + ": " + problem + "\n  " + fen);
+                    failures++;
+                    break;
+                }
+                final List<Move> legalMoves = new ArrayList<>(board.currentPlayer().getLegalMoves());
+                if(legalMoves.isEmpty()){
+                    break;
+                }
+                final MoveTransition transition = board.currentPlayer().makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+                if(!transition.getMoveStatus().isDone()){
+                    System.out.println("Game " + game + " ply " + ply + ": generated move is not legal\n  " + fen);
+                    failures++;
+                    break;
+                }
+                board = transition.getTransitionBoard();
+            }
+        }
+        System.out.println("Positions: " + positions + "  Failures: " + failures);
+        if(failures > 0){
+            System.exit(1);
+        }
+    }
+
+    //Null if the FEN reads back as the same position, otherwise what went wrong
+    private static String roundTrip(final Board board, final String fen) {
+        final Board parsed;
+        try {
+            parsed = Fen.parse(fen);
+        } catch (final IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if(!Fen.toFen(parsed).equals(fen)){
+            return "reads back as " + Fen.toFen(parsed);
+        }
+        if(parsed.getZobristKey() != board.getZobristKey()){
+            return "reads back with a different hash";
+        }
+        return null;
+    }
+}
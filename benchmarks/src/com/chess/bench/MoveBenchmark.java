@@ -0,0 +1,55 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Executing moves, and looking them up from tile coordinates the way the GUI does
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class MoveBenchmark {
+
+    @Param({"MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions position;
+
+    private Board board;
+    private List<Move> moves;
+    private int nextMove;
+
+    @Setup
+    public void setup() {
+        this.board = this.position.createBoard();
+        this.moves = new ArrayList<>(this.board.currentPlayer().getLegalMoves());
+        this.nextMove = 0;
+    }
+
+    //Cycle through all legal moves so no single move dominates the numbers
+    private Move nextMove() {
+        final Move move = this.moves.get(this.nextMove);
+        this.nextMove = (this.nextMove + 1) % this.moves.size();
+        return move;
+    }
+
+    @Benchmark
+    public Board execute() {
+        return nextMove().execute();
+    }
+
+    @Benchmark
+    public Move createMove() {
+        final Move move = nextMove();
+        return Move.MoveFactory.createMove(this.board, move.getCurrentCoordinate(), move.getDestinationCoordinate());
+    }
+}
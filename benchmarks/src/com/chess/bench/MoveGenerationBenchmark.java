@@ -0,0 +1,62 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.LegalMoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.MoveListStack;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.perft.Perft;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+//Legal move generation into buffers that are reused between calls.
+//None of these should allocate, ZeroAllocationCheck fails if gc.alloc.rate.norm says otherwise.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+
+    @Param({"MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions position;
+
+    private Board board;
+    private MutableBoard mutableBoard;
+    private MoveList moves;
+    private MoveListStack moveLists;
+
+    @Setup
+    public void setup() {
+        this.board = this.position.createBoard();
+        this.mutableBoard = new MutableBoard(this.board);
+        this.moves = new MoveList();
+        this.moveLists = new MoveListStack(3);
+    }
+
+    @Benchmark
+    public int generateOnBoard() {
+        this.moves.clear();
+        LegalMoveGenerator.generateLegalMoves(this.board, this.board.currentPlayer().getAlliance(), this.moves);
+        return this.moves.size();
+    }
+
+    @Benchmark
+    public int generateOnMutableBoard() {
+        this.moves.clear();
+        LegalMoveGenerator.generateLegalMoves(this.mutableBoard, this.moves);
+        return this.moves.size();
+    }
+
+    //Generation together with making and unmaking every move, three plies deep
+    @Benchmark
+    public long perft() {
+        return Perft.perft(this.mutableBoard, 3, this.moveLists);
+    }
+}
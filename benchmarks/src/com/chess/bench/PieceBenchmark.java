@@ -0,0 +1,59 @@
+package com.chess.bench;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.LegalMoveGenerator;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.pieces.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+//Legal move generation for the side to move, as the engine runs it, counting the moves of one
+//piece type. The generator works on all pieces at once, so the piece type mostly shows how the
+//position's move count splits; the generation cost itself is the same for every type
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class PieceBenchmark {
+
+    @Param({"MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions position;
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    public Piece.PieceType pieceType;
+
+    private Board board;
+    private Alliance alliance;
+    private int pieceIndex;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setup() {
+        this.board = this.position.createBoard();
+        this.alliance = this.board.currentPlayer().getAlliance();
+        this.pieceIndex = BoardUtils.pieceIndex(this.alliance, this.pieceType);
+    }
+
+    @Benchmark
+    public int generatePieceMoves() {
+        this.moves.clear();
+        LegalMoveGenerator.generateLegalMoves(this.board, this.alliance, this.moves);
+        int pieceMoves = 0;
+        for(int i = 0; i < this.moves.size(); i++){
+            if(MoveEncoding.movedPiece(this.moves.get(i)) == this.pieceIndex){
+                pieceMoves++;
+            }
+        }
+        return pieceMoves;
+    }
+}
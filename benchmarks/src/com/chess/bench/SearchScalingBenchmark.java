@@ -0,0 +1,82 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.search.AlphaBetaSearch;
+import com.chess.engine.search.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+//Time to reach a fixed depth with the Lazy SMP search at different thread counts.
+//Every measurement is one search from an empty transposition table.
+//main runs it and prints the speedup of each thread count over a single thread.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchScalingBenchmark {
+
+    //Deep enough that the threads have something to share, shallow enough to finish in seconds
+    private static final int DEPTH = 8;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"MIDDLEGAME"})
+    public BenchmarkPositions position;
+
+    private Board board;
+    private AlphaBetaSearch search;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        this.board = this.position.createBoard();
+        this.search = new AlphaBetaSearch(DEPTH, TimeUnit.DAYS.toMillis(1), this.threads);
+    }
+
+    @Benchmark
+    public SearchResult searchToDepth() {
+        return this.search.execute(this.board);
+    }
+
+    //Usage: SearchScalingBenchmark
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(SearchScalingBenchmark.class.getName())
+                .build();
+        final Collection<RunResult> results = new Runner(options).run();
+
+        final Map<Integer, Double> millisPerThreads = new TreeMap<>();
+        for(final RunResult result : results){
+            millisPerThreads.put(Integer.parseInt(result.getParams().getParam("threads")),
+                    result.getPrimaryResult().getScore());
+        }
+        final Double singleThreadMillis = millisPerThreads.get(1);
+        System.out.println("Threads  Time to depth " + DEPTH + " (ms)  Speedup");
+        for(final Map.Entry<Integer, Double> entry : millisPerThreads.entrySet()){
+            System.out.println(String.format("%7d  %20.1f  %7.2f", entry.getKey(), entry.getValue(),
+                    singleThreadMillis == null ? Double.NaN : singleThreadMillis / entry.getValue()));
+        }
+    }
+}
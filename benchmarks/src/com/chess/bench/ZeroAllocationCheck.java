@@ -0,0 +1,62 @@
+package com.chess.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+//Runs MoveGenerationBenchmark with the GC profiler and exits with status 1 if any of its
+//benchmarks allocates. The profiler reports a small fraction of a byte per operation even
+//for code that allocates nothing, so anything below one byte counts as zero.
+//Usage: ZeroAllocationCheck
+public class ZeroAllocationCheck {
+
+    private static final double MAX_BYTES_PER_OPERATION = 1.0;
+
+    //Older JMH versions put a middle dot in front of the profiler results
+    private static final String[] ALLOCATION_KEYS = {"gc.alloc.rate.norm", "\u00B7gc.alloc.rate.norm"};
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(MoveGenerationBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+        final Collection<RunResult> results = new Runner(options).run();
+
+        boolean allocates = false;
+        for(final RunResult result : results){
+            final String name = result.getParams().getBenchmark() + " " + result.getParams().getParam("position");
+            final Result allocation = allocationResult(result);
+            if(allocation == null){
+                System.out.println(name + ": no allocation figures, is the GC profiler available?");
+                allocates = true;
+            } else if(allocation.getScore() >= MAX_BYTES_PER_OPERATION){
+                System.out.println(name + ": allocates " + allocation.getScore() + " bytes per operation");
+                allocates = true;
+            } else {
+                System.out.println(name + ": allocation free");
+            }
+        }
+        if(allocates){
+            System.exit(1);
+        }
+    }
+
+    private static Result allocationResult(final RunResult result) {
+        for(final String key : ALLOCATION_KEYS){
+            final Result allocation = result.getSecondaryResults().get(key);
+            if(allocation != null){
+                return allocation;
+            }
+        }
+        return null;
+    }
+}
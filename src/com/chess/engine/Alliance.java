@@ -21,6 +21,11 @@ public enum Alliance {
             return -1;
         }
 
+        @Override
+        public Alliance getOpposite() {
+            return BLACK;
+        }
+
         @Override
         public Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer) {
             return whitePlayer;
@@ -42,6 +47,11 @@ public enum Alliance {
             return 1;
         }
 
+        @Override
+        public Alliance getOpposite() {
+            return WHITE;
+        }
+
         @Override
         public Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer) {
             return blackPlayer;
@@ -52,6 +62,7 @@ public enum Alliance {
     public abstract boolean isWhite();
     public abstract boolean isBlack();
     public abstract int getDirection();
+    public abstract Alliance getOpposite();
 
     public abstract Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer);
 }
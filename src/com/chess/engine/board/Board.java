@@ -11,8 +11,16 @@ import java.util.*;
 //Resembles the board og the chess
 public class Board {
 
-    //The main game board
-    private List<Tile> gameBoard;
+    //Piece standing on each tile, null if the tile is empty
+    private final Piece[] boardConfig;
+
+    //One bitboard per alliance and piece type, bit i set when tile i holds such a piece
+    private final long[] pieceBitboards;
+
+    //Occupancy masks of each alliance and of the whole board
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final long allOccupancy;
 
     //List of active whitepieces
     private final Collection<Piece> whitePieces;
@@ -20,6 +28,19 @@ public class Board {
     //List of active blackpieces
     private final Collection<Piece> blackPieces;
 
+    //Pawn that just jumped two tiles and can be taken en passant, null if there is none
+    private final Pawn enPassantPawn;
+
+    //Castling rights as BoardUtils castle bits
+    private final int castlingRights;
+
+    //Zobrist hash of the pieces, side to move, castling rights and en passant pawn
+    private final long zobristKey;
+
+    //Half moves since the last capture or pawn move, and the number of the full move being played
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+
     //Players
     private final WhitePlayer whitePlayer;
     private final BlackPlayer blackPlayer;
@@ -27,18 +48,41 @@ public class Board {
 
 
     private Board(final Builder builder) {
-        //Create the board
-        this.gameBoard = createGameBoard(builder);
-        //Calculate pieces on the board
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
+        //Fill the bitboards and the tile lookup from the builder
+        this.boardConfig = new Piece[BoardUtils.NUM_TILES];
+        this.pieceBitboards = new long[BoardUtils.NUM_PIECE_INDEXES];
+        long whiteOccupancy = 0L;
+        long blackOccupancy = 0L;
+        for(final Piece piece : builder.boardConfig.values()){
+            final int piecePosition = piece.getPiecePosition();
+            final long squareMask = 1L << piecePosition;
+            this.boardConfig[piecePosition] = piece;
+            this.pieceBitboards[BoardUtils.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())] |= squareMask;
+            if(piece.getPieceAlliance().isWhite()){
+                whiteOccupancy |= squareMask;
+            } else {
+                blackOccupancy |= squareMask;
+            }
+        }
+        this.whiteOccupancy = whiteOccupancy;
+        this.blackOccupancy = blackOccupancy;
+        this.allOccupancy = whiteOccupancy | blackOccupancy;
+        this.enPassantPawn = builder.enPassantPawn;
+        this.castlingRights = calculateCastlingRights();
+        //Boards made by a move get their hash updated from the previous board, others are hashed from scratch
+        this.zobristKey = builder.hasZobristKey ? builder.zobristKey :
+                Zobrist.calculateKey(this.pieceBitboards, builder.nextMoveMaker, this.castlingRights,
+                        this.enPassantPawn == null ? -1 : this.enPassantPawn.getPiecePosition());
+        this.halfmoveClock = builder.halfmoveClock;
+        this.fullmoveNumber = builder.fullmoveNumber;
 
-        //Calc legal moves
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
+        //Calculate pieces on the board
+        this.whitePieces = calculateActivePieces(this.whiteOccupancy);
+        this.blackPieces = calculateActivePieces(this.blackOccupancy);
 
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
+        //Players work out their legal moves only when asked for them
+        this.whitePlayer = new WhitePlayer(this);
+        this.blackPlayer = new BlackPlayer(this);
 
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
     }
@@ -59,7 +103,7 @@ public class Board {
         final StringBuilder stringBuilder = new StringBuilder();
         for(int i = 0;i < BoardUtils.NUM_TILES; i++){
             //Get a particular tile and call to string method of that particular tile
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = getTile(i).toString();
             stringBuilder.append(String.format("%3s", tileText));
             if((i+1) % BoardUtils.NUM_TILES_PER_ROW == 0)stringBuilder.append(("\n"));
         }
@@ -83,39 +127,16 @@ public class Board {
         return tile.toString();
     }
 
-    //Calculate legal moves of a particular alliance
-    private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
-        List<Move> legalMoves = new ArrayList<>();
-
-        for(final  Piece piece : pieces){
-            legalMoves.addAll(piece.calculateLegalMoves(this));
-        }
-
-        return legalMoves;
-    }
-
-    //Calculate the total no of active pieces
-    private static Collection<Piece> calculateActivePieces(List<Tile> gameBoard, Alliance alliance) {
-        final List<Piece> activePieces = new ArrayList<>();
+    //Collect the pieces standing on the set bits of an occupancy mask
+    private Collection<Piece> calculateActivePieces(final long occupancy) {
+        final List<Piece> activePieces = new ArrayList<>(Long.bitCount(occupancy));
 
-        for(final Tile tile : gameBoard){
-            if(tile.isTileOccupied() && tile.getPiece().getPieceAlliance() == alliance){
-                activePieces.add(tile.getPiece());
-            }
+        for(long remaining = occupancy; remaining != 0; remaining &= remaining - 1){
+            activePieces.add(this.boardConfig[Long.numberOfTrailingZeros(remaining)]);
         }
         return activePieces;
     }
 
-
-    //Populate board with tiles
-    private List<Tile> createGameBoard(final Builder builder) {
-        final Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
-        for(int i = 0;i < BoardUtils.NUM_TILES; i++){
-            tiles[i] = Tile.createTile(i, builder.boardConfig.get(i));
-        }
-        return Arrays.asList(tiles);
-    }
-
     //Configure initial board with pieces at respective positions
     public static Board createStandardBoard(){
         final Builder builder = new Builder();
@@ -164,7 +185,112 @@ public class Board {
     }
 
     public Tile getTile(final int tileCoordinate){
-        return gameBoard.get(tileCoordinate);
+        return Tile.createTile(tileCoordinate, this.boardConfig[tileCoordinate]);
+    }
+
+    //Piece on a tile, or null if the tile is empty
+    public Piece getPiece(final int tileCoordinate){
+        return this.boardConfig[tileCoordinate];
+    }
+
+    //Bitboard of all pieces of one type and alliance
+    public long getPieces(final Alliance alliance, final Piece.PieceType pieceType){
+        return this.pieceBitboards[BoardUtils.pieceIndex(alliance, pieceType)];
+    }
+
+    //The bitboards themselves, for the move generator, which must not change them
+    long[] getPieceBitboards(){
+        return this.pieceBitboards;
+    }
+
+    //Bitboard of all tiles occupied by one alliance
+    public long getOccupancy(final Alliance alliance){
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    //Bitboard of all occupied tiles
+    public long getOccupancy(){
+        return this.allOccupancy;
+    }
+
+    //True if any piece of the alliance attacks the tile
+    public boolean isSquareAttacked(final int tileCoordinate, final Alliance byAlliance){
+        return BoardUtils.isSquareAttacked(tileCoordinate, byAlliance, this.allOccupancy, this.pieceBitboards);
+    }
+
+    //Same as isSquareAttacked, but sliders are blocked by the given occupancy instead of the board's
+    boolean isSquareAttacked(final int tileCoordinate, final Alliance byAlliance, final long occupancy){
+        return BoardUtils.isSquareAttacked(tileCoordinate, byAlliance, occupancy, this.pieceBitboards);
+    }
+
+    //Bitboard of the pieces of both alliances attacking the tile, mask it with
+    //getOccupancy(alliance) to keep one side
+    public long attackersOf(final int tileCoordinate){
+        return BoardUtils.attackersOf(tileCoordinate, this.allOccupancy, this.pieceBitboards);
+    }
+
+    public Pawn getEnPassantPawn(){
+        return this.enPassantPawn;
+    }
+
+    public int getCastlingRights(){
+        return this.castlingRights;
+    }
+
+    public long getZobristKey(){
+        return this.zobristKey;
+    }
+
+    public int getHalfmoveClock(){
+        return this.halfmoveClock;
+    }
+
+    public int getFullmoveNumber(){
+        return this.fullmoveNumber;
+    }
+
+    //Two boards are equal when they have the same pieces on the same tiles, the same side to move,
+    //castling rights and en passant pawn, the Zobrist key is compared first as a cheap filter
+    @Override
+    public boolean equals(final Object object){
+        if(this == object){
+            return true;
+        }
+        if(!(object instanceof Board)){
+            return false;
+        }
+        final Board otherBoard = (Board)object;
+        return this.zobristKey == otherBoard.zobristKey
+                && Arrays.equals(this.pieceBitboards, otherBoard.pieceBitboards)
+                && this.currentPlayer.getAlliance() == otherBoard.currentPlayer.getAlliance()
+                && this.castlingRights == otherBoard.castlingRights
+                && Objects.equals(this.enPassantPawn, otherBoard.enPassantPawn);
+    }
+
+    @Override
+    public int hashCode(){
+        return Long.hashCode(this.zobristKey);
+    }
+
+    //A side keeps its castling right while its king and the rook on that wing are still
+    //on their home tiles and have never moved
+    private int calculateCastlingRights(){
+        int castlingRights = 0;
+        if(isUnmovedPiece(60, Alliance.WHITE, Piece.PieceType.KING)){
+            if(isUnmovedPiece(63, Alliance.WHITE, Piece.PieceType.ROOK)) castlingRights |= BoardUtils.WHITE_KING_SIDE_CASTLE;
+            if(isUnmovedPiece(56, Alliance.WHITE, Piece.PieceType.ROOK)) castlingRights |= BoardUtils.WHITE_QUEEN_SIDE_CASTLE;
+        }
+        if(isUnmovedPiece(4, Alliance.BLACK, Piece.PieceType.KING)){
+            if(isUnmovedPiece(7, Alliance.BLACK, Piece.PieceType.ROOK)) castlingRights |= BoardUtils.BLACK_KING_SIDE_CASTLE;
+            if(isUnmovedPiece(0, Alliance.BLACK, Piece.PieceType.ROOK)) castlingRights |= BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        }
+        return castlingRights;
+    }
+
+    private boolean isUnmovedPiece(final int tileCoordinate, final Alliance alliance, final Piece.PieceType pieceType){
+        final Piece piece = this.boardConfig[tileCoordinate];
+        return piece != null && piece.getPieceAlliance() == alliance && piece.getPieceType() == pieceType
+                && piece.isFirstMove();
     }
 
     public Iterable<Move> getAllLegalMoves() {
@@ -181,6 +307,11 @@ public class Board {
         Map<Integer, Piece> boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        //Hash of the board being built, set by moves that update it incrementally
+        long zobristKey;
+        boolean hasZobristKey;
+        int halfmoveClock;
+        int fullmoveNumber = 1;
 
         public Builder(){
             this.boardConfig = new HashMap<>();
@@ -205,5 +336,17 @@ public class Board {
         public void setEnpassantPawn(Pawn enPassantPawn) {
             this.enPassantPawn = enPassantPawn;
         }
+
+        public Builder setMoveCounters(final int halfmoveClock, final int fullmoveNumber) {
+            this.halfmoveClock = halfmoveClock;
+            this.fullmoveNumber = fullmoveNumber;
+            return this;
+        }
+
+        Builder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            this.hasZobristKey = true;
+            return this;
+        }
     }
 }
@@ -1,10 +1,19 @@
 package com.chess.engine.board;
 
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
 public class BoardUtils {
 
     public static final int NUM_TILES = 64;
     public static final int NUM_TILES_PER_ROW = 8;
 
+    //One bitboard for each piece type of each alliance
+    public static final int NUM_PIECE_TYPES = Piece.PieceType.values().length;
+    public static final int NUM_PIECE_INDEXES = Alliance.values().length * NUM_PIECE_TYPES;
+
 
     public static final boolean[] FIRST_COLUMN = initColumn(0);
     public static final boolean[] SECOND_COLUMN = initColumn(1);
@@ -20,6 +29,48 @@ public class BoardUtils {
     public static final boolean[] SECOND_RANK = initRow(48);
     public static final boolean[] FIRST_RANK = initRow(56);
 
+    //Tiles attacked from each tile by a knight, a king and a pawn of each alliance
+    public static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[]{-17, -15, -10, -6, 6, 10, 15, 17});
+    public static final long[] KING_ATTACKS = initLeaperAttacks(new int[]{-9, -8, -7, -1, 1, 7, 8, 9});
+    public static final long[][] PAWN_ATTACKS = {
+            initLeaperAttacks(new int[]{-9, -7}),
+            initLeaperAttacks(new int[]{7, 9})
+    };
+
+    //Algebraic name of each tile, tile 0 is a8 and tile 63 is h1
+    public static final String[] ALGEBRAIC_NOTATION = initAlgebraicNotation();
+
+    //Castling rights, one bit for each side of each alliance
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+
+    //Castling rights that survive a move from or to each tile, moving a king or rook
+    //off its home tile, or capturing a rook there, removes the matching rights
+    public static final int[] CASTLING_RIGHTS_MASK = initCastlingRightsMask();
+
+    private static int[] initCastlingRightsMask() {
+        final int[] mask = new int[NUM_TILES];
+        Arrays.fill(mask, WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE |
+                BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        mask[0] &= ~BLACK_QUEEN_SIDE_CASTLE;
+        mask[4] &= ~(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        mask[7] &= ~BLACK_KING_SIDE_CASTLE;
+        mask[56] &= ~WHITE_QUEEN_SIDE_CASTLE;
+        mask[60] &= ~(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE);
+        mask[63] &= ~WHITE_KING_SIDE_CASTLE;
+        return mask;
+    }
+
+    private static String[] initAlgebraicNotation() {
+        final String[] notation = new String[NUM_TILES];
+        for(int tile = 0; tile < NUM_TILES; tile++){
+            notation[tile] = "" + (char)('a' + tile % NUM_TILES_PER_ROW) + (NUM_TILES_PER_ROW - tile / NUM_TILES_PER_ROW);
+        }
+        return notation;
+    }
+
     private static boolean[] initRow(int rowNumber) {
         final boolean[] row = new boolean[NUM_TILES];
 
@@ -44,7 +95,99 @@ public class BoardUtils {
 
 
 
+    //A jump is kept only if it stays on the board and moves at most two columns sideways,
+    //anything further has wrapped around to the other edge
+    private static long[] initLeaperAttacks(final int[] offsets) {
+        final long[] attacks = new long[NUM_TILES];
+        for(int tile = 0; tile < NUM_TILES; tile++){
+            for(final int offset : offsets){
+                final int destination = tile + offset;
+                if(isValidTileCoordinate(destination) &&
+                        Math.abs(destination % NUM_TILES_PER_ROW - tile % NUM_TILES_PER_ROW) <= 2){
+                    attacks[tile] |= 1L << destination;
+                }
+            }
+        }
+        return attacks;
+    }
+
+    //Every piece of either alliance attacking the tile, as a bitboard of the tiles they stand on.
+    //Works backwards from the tile: a knight attacks it exactly when a knight stands a knight's
+    //jump away, a rook when a rook stands on the tile's rook rays, and so on.
+    public static long attackersOf(final int tileCoordinate, final long occupancy, final long[] pieceBitboards) {
+        final int white = Alliance.WHITE.ordinal() * NUM_PIECE_TYPES;
+        final int black = Alliance.BLACK.ordinal() * NUM_PIECE_TYPES;
+        final long knights = pieceBitboards[white + Piece.PieceType.KNIGHT.ordinal()] | pieceBitboards[black + Piece.PieceType.KNIGHT.ordinal()];
+        final long kings = pieceBitboards[white + Piece.PieceType.KING.ordinal()] | pieceBitboards[black + Piece.PieceType.KING.ordinal()];
+        final long queens = pieceBitboards[white + Piece.PieceType.QUEEN.ordinal()] | pieceBitboards[black + Piece.PieceType.QUEEN.ordinal()];
+        final long bishops = pieceBitboards[white + Piece.PieceType.BISHOP.ordinal()] | pieceBitboards[black + Piece.PieceType.BISHOP.ordinal()];
+        final long rooks = pieceBitboards[white + Piece.PieceType.ROOK.ordinal()] | pieceBitboards[black + Piece.PieceType.ROOK.ordinal()];
+        //A white pawn attacks the tile if it stands where a black pawn on the tile would attack
+        return (PAWN_ATTACKS[Alliance.BLACK.ordinal()][tileCoordinate] & pieceBitboards[white + Piece.PieceType.PAWN.ordinal()])
+                | (PAWN_ATTACKS[Alliance.WHITE.ordinal()][tileCoordinate] & pieceBitboards[black + Piece.PieceType.PAWN.ordinal()])
+                | (KNIGHT_ATTACKS[tileCoordinate] & knights)
+                | (KING_ATTACKS[tileCoordinate] & kings)
+                | (MagicBitboards.bishopAttacks(tileCoordinate, occupancy) & (bishops | queens))
+                | (MagicBitboards.rookAttacks(tileCoordinate, occupancy) & (rooks | queens));
+    }
+
+    //True if any piece of the alliance attacks the tile, cheapest attackers are tried first
+    public static boolean isSquareAttacked(final int tileCoordinate, final Alliance byAlliance,
+                                           final long occupancy, final long[] pieceBitboards) {
+        final int offset = byAlliance.ordinal() * NUM_PIECE_TYPES;
+        if((PAWN_ATTACKS[byAlliance.getOpposite().ordinal()][tileCoordinate] & pieceBitboards[offset + Piece.PieceType.PAWN.ordinal()]) != 0
+                || (KNIGHT_ATTACKS[tileCoordinate] & pieceBitboards[offset + Piece.PieceType.KNIGHT.ordinal()]) != 0
+                || (KING_ATTACKS[tileCoordinate] & pieceBitboards[offset + Piece.PieceType.KING.ordinal()]) != 0){
+            return true;
+        }
+        final long queens = pieceBitboards[offset + Piece.PieceType.QUEEN.ordinal()];
+        return (MagicBitboards.bishopAttacks(tileCoordinate, occupancy) & (pieceBitboards[offset + Piece.PieceType.BISHOP.ordinal()] | queens)) != 0
+                || (MagicBitboards.rookAttacks(tileCoordinate, occupancy) & (pieceBitboards[offset + Piece.PieceType.ROOK.ordinal()] | queens)) != 0;
+    }
+
+    public static String getPositionAtCoordinate(final int coordinate) {
+        return ALGEBRAIC_NOTATION[coordinate];
+    }
+
+    //Tile of an algebraic name such as "e4", or -1 if it does not name a tile
+    public static int getCoordinateAtPosition(final CharSequence position) {
+        if(position.length() != 2){
+            return -1;
+        }
+        final int column = position.charAt(0) - 'a';
+        final int rank = position.charAt(1) - '1';
+        if(column < 0 || column >= NUM_TILES_PER_ROW || rank < 0 || rank >= NUM_TILES_PER_ROW){
+            return -1;
+        }
+        return (NUM_TILES_PER_ROW - 1 - rank) * NUM_TILES_PER_ROW + column;
+    }
+
     public static boolean isValidTileCoordinate(int coordinate) {
         return coordinate >= 0 && coordinate < 64;
     }
+
+    //Index of the bitboard holding pieces of this alliance and type
+    public static int pieceIndex(final Alliance alliance, final Piece.PieceType pieceType) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    //Only kings and rooks that still hold castling rights, and pawns on their starting rank, are
+    //known to be unmoved when a board is rebuilt from its castling rights. Nothing else reads the
+    //flag of the other pieces.
+    static boolean isUnmovedPiece(final Piece.PieceType pieceType, final int tileCoordinate, final int castlingRights) {
+        switch(pieceType){
+            case KING:
+                return (tileCoordinate == 60 && (castlingRights & (WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE)) != 0)
+                        || (tileCoordinate == 4 && (castlingRights & (BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE)) != 0);
+            case ROOK:
+                return (tileCoordinate == 63 && (castlingRights & WHITE_KING_SIDE_CASTLE) != 0)
+                        || (tileCoordinate == 56 && (castlingRights & WHITE_QUEEN_SIDE_CASTLE) != 0)
+                        || (tileCoordinate == 7 && (castlingRights & BLACK_KING_SIDE_CASTLE) != 0)
+                        || (tileCoordinate == 0 && (castlingRights & BLACK_QUEEN_SIDE_CASTLE) != 0);
+            case PAWN:
+                return SECOND_RANK[tileCoordinate] || SEVENTH_RANK[tileCoordinate];
+            default:
+                return false;
+        }
+    }
 }
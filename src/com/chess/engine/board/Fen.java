@@ -0,0 +1,311 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.nio.ByteBuffer;
+
+//Reads and writes positions in Forsyth-Edwards Notation.
+//The reader walks the characters in place, from any CharSequence or straight from the bytes of a
+//ByteBuffer, and fills a Board.Builder without building intermediate strings. The writer appends
+//to a StringBuilder the caller can clear and reuse for every position.
+public class Fen {
+
+    public static final String STANDARD_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "PNRBQK";
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+    private Fen(){
+        throw new RuntimeException("Cannot instantiate");
+    }
+
+    //The move counters may be left out, as EPD lines do, and then read as 0 and 1
+    public static Board parse(final CharSequence fen) {
+        return new Reader(fen).readBoard();
+    }
+
+    //Reads the bytes from the buffer's position to its limit as ASCII, the position is left alone
+    public static Board parse(final ByteBuffer fen) {
+        return parse(new AsciiSequence(fen));
+    }
+
+    public static String toFen(final Board board) {
+        return write(board, new StringBuilder(90)).toString();
+    }
+
+    public static StringBuilder write(final Board board, final StringBuilder builder) {
+        for(int row = 0; row < BoardUtils.NUM_TILES_PER_ROW; row++){
+            if(row > 0){
+                builder.append('/');
+            }
+            int emptyTiles = 0;
+            for(int column = 0; column < BoardUtils.NUM_TILES_PER_ROW; column++){
+                final Piece piece = board.getPiece(row * BoardUtils.NUM_TILES_PER_ROW + column);
+                if(piece == null){
+                    emptyTiles++;
+                    continue;
+                }
+                if(emptyTiles > 0){
+                    builder.append((char) ('0' + emptyTiles));
+                    emptyTiles = 0;
+                }
+                final char letter = PIECE_LETTERS.charAt(piece.getPieceType().ordinal());
+                builder.append(piece.getPieceAlliance().isWhite() ? letter : Character.toLowerCase(letter));
+            }
+            if(emptyTiles > 0){
+                builder.append((char) ('0' + emptyTiles));
+            }
+        }
+
+        builder.append(board.currentPlayer().getAlliance().isWhite() ? " w " : " b ");
+
+        final int castlingRights = board.getCastlingRights();
+        if(castlingRights == 0){
+            builder.append('-');
+        } else {
+            if((castlingRights & BoardUtils.WHITE_KING_SIDE_CASTLE) != 0) builder.append('K');
+            if((castlingRights & BoardUtils.WHITE_QUEEN_SIDE_CASTLE) != 0) builder.append('Q');
+            if((castlingRights & BoardUtils.BLACK_KING_SIDE_CASTLE) != 0) builder.append('k');
+            if((castlingRights & BoardUtils.BLACK_QUEEN_SIDE_CASTLE) != 0) builder.append('q');
+        }
+
+        builder.append(' ');
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if(enPassantPawn == null){
+            builder.append('-');
+        } else {
+            //The tile the pawn jumped over
+            builder.append(BoardUtils.getPositionAtCoordinate(
+                    enPassantPawn.getPiecePosition() - enPassantPawn.getPieceAlliance().getDirection() * 8));
+        }
+
+        return builder.append(' ').append(board.getHalfmoveClock())
+                      .append(' ').append(board.getFullmoveNumber());
+    }
+
+    //Cursor over the characters of one FEN record
+    private static final class Reader {
+
+        private final CharSequence fen;
+        private int index;
+
+        Reader(final CharSequence fen) {
+            this.fen = fen;
+        }
+
+        Board readBoard() {
+            skipSpaces();
+            //Piece letters per tile first, the pieces themselves need the castling rights for their unmoved flags
+            final char[] placement = new char[BoardUtils.NUM_TILES];
+            int row = 0;
+            int column = 0;
+            while(this.index < this.fen.length() && this.fen.charAt(this.index) != ' '){
+                final char c = this.fen.charAt(this.index++);
+                if(c == '/'){
+                    if(column != BoardUtils.NUM_TILES_PER_ROW){
+                        throw error("Rank " + (8 - row) + " does not hold 8 tiles");
+                    }
+                    if(++row == BoardUtils.NUM_TILES_PER_ROW){
+                        throw error("More than 8 ranks");
+                    }
+                    column = 0;
+                } else if(c >= '1' && c <= '8'){
+                    column += c - '0';
+                } else if(PIECE_LETTERS.indexOf(Character.toUpperCase(c)) >= 0 && column < BoardUtils.NUM_TILES_PER_ROW){
+                    placement[row * BoardUtils.NUM_TILES_PER_ROW + column++] = c;
+                } else {
+                    throw error("Unexpected '" + c + "' in piece placement");
+                }
+                if(column > BoardUtils.NUM_TILES_PER_ROW){
+                    throw error("Rank " + (8 - row) + " holds more than 8 tiles");
+                }
+            }
+            if(row != BoardUtils.NUM_TILES_PER_ROW - 1 || column != BoardUtils.NUM_TILES_PER_ROW){
+                throw error("Piece placement does not cover the board");
+            }
+            checkPlacement(placement);
+
+            skipSpaces();
+            final Alliance sideToMove;
+            final char side = nextChar();
+            if(side == 'w'){
+                sideToMove = Alliance.WHITE;
+            } else if(side == 'b'){
+                sideToMove = Alliance.BLACK;
+            } else {
+                throw error("Side to move must be w or b");
+            }
+
+            skipSpaces();
+            int castlingRights = 0;
+            if(peek() == '-'){
+                this.index++;
+            } else {
+                while(this.index < this.fen.length() && this.fen.charAt(this.index) != ' '){
+                    switch(this.fen.charAt(this.index++)){
+                        case 'K': castlingRights |= BoardUtils.WHITE_KING_SIDE_CASTLE; break;
+                        case 'Q': castlingRights |= BoardUtils.WHITE_QUEEN_SIDE_CASTLE; break;
+                        case 'k': castlingRights |= BoardUtils.BLACK_KING_SIDE_CASTLE; break;
+                        case 'q': castlingRights |= BoardUtils.BLACK_QUEEN_SIDE_CASTLE; break;
+                        default: throw error("Unexpected castling right");
+                    }
+                }
+                if(castlingRights == 0){
+                    throw error("Missing castling rights");
+                }
+            }
+
+            skipSpaces();
+            int enPassantTile = -1;
+            if(peek() == '-'){
+                this.index++;
+            } else {
+                final char file = nextChar();
+                final char rank = nextChar();
+                if(file < 'a' || file > 'h' || rank != (sideToMove.isWhite() ? '6' : '3')){
+                    throw error("Bad en passant tile");
+                }
+                enPassantTile = ('8' - rank) * BoardUtils.NUM_TILES_PER_ROW + (file - 'a');
+            }
+
+            skipSpaces();
+            int halfmoveClock = 0;
+            int fullmoveNumber = 1;
+            if(this.index < this.fen.length()){
+                halfmoveClock = readNumber();
+                skipSpaces();
+                if(this.index < this.fen.length()){
+                    fullmoveNumber = readNumber();
+                    skipSpaces();
+                }
+            }
+            if(this.index < this.fen.length()){
+                throw error("Trailing characters");
+            }
+
+            final Board.Builder builder = new Board.Builder();
+            for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++){
+                final char c = placement[tile];
+                if(c != 0){
+                    final Alliance alliance = Character.isUpperCase(c) ? Alliance.WHITE : Alliance.BLACK;
+                    final Piece.PieceType pieceType = PIECE_TYPES[PIECE_LETTERS.indexOf(Character.toUpperCase(c))];
+                    builder.setPiece(pieceType.createPiece(alliance, tile, BoardUtils.isUnmovedPiece(pieceType, tile, castlingRights)));
+                }
+            }
+            if(enPassantTile != -1){
+                //The pawn that jumped stands one tile past the en passant tile, seen from its own side
+                final Alliance jumpedAlliance = sideToMove.getOpposite();
+                final Piece jumpedPawn = builder.boardConfig.get(enPassantTile + jumpedAlliance.getDirection() * 8);
+                if(jumpedPawn == null || jumpedPawn.getPieceType() != Piece.PieceType.PAWN
+                        || jumpedPawn.getPieceAlliance() != jumpedAlliance){
+                    throw error("No pawn to take en passant");
+                }
+                builder.setEnpassantPawn((Pawn) jumpedPawn);
+            }
+            builder.setMoveMaker(sideToMove);
+            builder.setMoveCounters(halfmoveClock, fullmoveNumber);
+            return builder.build();
+        }
+
+        //The board and the move generator rely on one king a side. No pawn can get back to its own
+        //first rank, but pawns on the last rank are kept, the engine does not promote them yet
+        private void checkPlacement(final char[] placement) {
+            int whiteKings = 0;
+            int blackKings = 0;
+            for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++){
+                final char c = placement[tile];
+                if(c == 'K'){
+                    whiteKings++;
+                } else if(c == 'k'){
+                    blackKings++;
+                } else if((c == 'P' && tile >= BoardUtils.NUM_TILES - BoardUtils.NUM_TILES_PER_ROW)
+                        || (c == 'p' && tile < BoardUtils.NUM_TILES_PER_ROW)){
+                    throw error("Pawn on its own first rank at " + BoardUtils.getPositionAtCoordinate(tile));
+                }
+            }
+            if(whiteKings != 1 || blackKings != 1){
+                throw error("Need one king a side, found " + whiteKings + " white and " + blackKings + " black");
+            }
+        }
+
+        private int readNumber() {
+            final int start = this.index;
+            int number = 0;
+            while(this.index < this.fen.length() && this.fen.charAt(this.index) >= '0' && this.fen.charAt(this.index) <= '9'){
+                number = number * 10 + (this.fen.charAt(this.index++) - '0');
+                if(number > 1_000_000){
+                    throw error("Move counter out of range");
+                }
+            }
+            if(this.index == start){
+                throw error("Expected a move counter");
+            }
+            return number;
+        }
+
+        private char nextChar() {
+            if(this.index >= this.fen.length()){
+                throw error("Unexpected end");
+            }
+            return this.fen.charAt(this.index++);
+        }
+
+        private char peek() {
+            return this.index < this.fen.length() ? this.fen.charAt(this.index) : 0;
+        }
+
+        private void skipSpaces() {
+            while(this.index < this.fen.length() && Character.isWhitespace(this.fen.charAt(this.index))){
+                this.index++;
+            }
+        }
+
+        private IllegalArgumentException error(final String message) {
+            return new IllegalArgumentException(message + " at column " + this.index + " of FEN: " + this.fen);
+        }
+    }
+
+    //Characters of a byte buffer read as ASCII, without copying the bytes out
+    private static final class AsciiSequence implements CharSequence {
+
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int length;
+
+        AsciiSequence(final ByteBuffer buffer) {
+            this(buffer, buffer.position(), buffer.remaining());
+        }
+
+        private AsciiSequence(final ByteBuffer buffer, final int offset, final int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return (char) (this.buffer.get(this.offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new AsciiSequence(this.buffer, this.offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder(this.length);
+            for(int i = 0; i < this.length; i++){
+                builder.append(charAt(i));
+            }
+            return builder.toString();
+        }
+    }
+}
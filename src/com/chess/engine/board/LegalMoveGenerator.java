@@ -0,0 +1,374 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Generates strictly legal moves straight from the bitboards.
+//The pieces giving check, the pinned pieces and the tiles that answer a check are worked out
+//once per position, so no candidate move has to be played on a throwaway board to find out
+//whether it leaves the king attacked.
+//Moves come out encoded by MoveEncoding into a MoveList, the Move objects are only built for
+//the players and the GUI.
+public class LegalMoveGenerator {
+
+    //Tiles strictly between two tiles on a common rank, column or diagonal, empty otherwise
+    private static final long[][] BETWEEN = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+    //The whole rank, column or diagonal through two tiles, empty if they share none
+    private static final long[][] LINE = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+    //Which moves to generate, captures include en passant and quiet moves include castling
+    private static final int CAPTURES = 1;
+    private static final int QUIET_MOVES = 2;
+    private static final int ALL_MOVES = CAPTURES | QUIET_MOVES;
+
+    static {
+        for(int from = 0; from < BoardUtils.NUM_TILES; from++){
+            for(int to = 0; to < BoardUtils.NUM_TILES; to++){
+                if(from == to){
+                    continue;
+                }
+                final long fromMask = 1L << from;
+                final long toMask = 1L << to;
+                if((MagicBitboards.rookAttacks(from, 0L) & toMask) != 0){
+                    BETWEEN[from][to] = MagicBitboards.rookAttacks(from, toMask) & MagicBitboards.rookAttacks(to, fromMask);
+                    LINE[from][to] = (MagicBitboards.rookAttacks(from, 0L) & MagicBitboards.rookAttacks(to, 0L)) | fromMask | toMask;
+                } else if((MagicBitboards.bishopAttacks(from, 0L) & toMask) != 0){
+                    BETWEEN[from][to] = MagicBitboards.bishopAttacks(from, toMask) & MagicBitboards.bishopAttacks(to, fromMask);
+                    LINE[from][to] = (MagicBitboards.bishopAttacks(from, 0L) & MagicBitboards.bishopAttacks(to, 0L)) | fromMask | toMask;
+                }
+            }
+        }
+    }
+
+    private LegalMoveGenerator(){
+        throw new RuntimeException("Cannot instantiate");
+    }
+
+    //All legal moves of the alliance as Move objects, including castling and en passant
+    public static List<Move> generateLegalMoves(final Board board, final Alliance alliance) {
+        final MoveList moves = new MoveList();
+        generateLegalMoves(board, alliance, moves);
+        final List<Move> legalMoves = new ArrayList<>(moves.size());
+        for(int i = 0; i < moves.size(); i++){
+            legalMoves.add(MoveEncoding.toMove(board, moves.get(i)));
+        }
+        return legalMoves;
+    }
+
+    //Add the encoded legal moves of the alliance on the board to the list
+    public static void generateLegalMoves(final Board board, final Alliance alliance, final MoveList moves) {
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        final Alliance opponent = alliance.getOpposite();
+        //Only the side that did not jump may take en passant
+        final int enPassantSquare = enPassantPawn == null || enPassantPawn.getPieceAlliance() != opponent ?
+                MutableBoard.EMPTY : enPassantPawn.getPiecePosition() - opponent.getDirection() * 8;
+        generateLegalMoves(board.getPieceBitboards(), alliance, board.getCastlingRights(), enPassantSquare, ALL_MOVES, moves);
+    }
+
+    //Add the encoded legal moves of the side to move to the list
+    public static void generateLegalMoves(final MutableBoard board, final MoveList moves) {
+        generateLegalMoves(board.getPieceBitboards(), board.getSideToMove(), board.getCastlingRights(),
+                board.getEnPassantSquare(), ALL_MOVES, moves);
+    }
+
+    //Only the legal moves that take a piece
+    public static void generateCaptures(final MutableBoard board, final MoveList moves) {
+        generateLegalMoves(board.getPieceBitboards(), board.getSideToMove(), board.getCastlingRights(),
+                board.getEnPassantSquare(), CAPTURES, moves);
+    }
+
+    //Only the legal moves that take nothing
+    public static void generateQuietMoves(final MutableBoard board, final MoveList moves) {
+        generateLegalMoves(board.getPieceBitboards(), board.getSideToMove(), board.getCastlingRights(),
+                board.getEnPassantSquare(), QUIET_MOVES, moves);
+    }
+
+    //True if the encoded move is legal on the board. Moves taken from the transposition table or
+    //from another node may belong to a different position, so they are checked before being made.
+    public static boolean isLegal(final MutableBoard board, final int move) {
+        if(move == MoveEncoding.NULL_MOVE){
+            return false;
+        }
+        final int from = MoveEncoding.from(move);
+        final int to = MoveEncoding.to(move);
+        final int kind = MoveEncoding.kind(move);
+        final int movedPiece = MoveEncoding.movedPiece(move);
+        final Alliance alliance = board.getSideToMove();
+        if(board.getPieceIndex(from) != movedPiece || movedPiece / BoardUtils.NUM_PIECE_TYPES != alliance.ordinal()){
+            return false;
+        }
+        if(kind == MoveEncoding.CASTLE){
+            return Math.abs(to - from) == 2 && !board.isInCheck()
+                    && canCastle(board.getPieceBitboards(), alliance, board.getCastlingRights(), from, board.getOccupancy(), to > from);
+        }
+        final int capturedPiece = MoveEncoding.capturedPiece(move);
+        if(kind == MoveEncoding.EN_PASSANT){
+            if(to != board.getEnPassantSquare() || board.getPieceIndex(MoveEncoding.capturedTile(move)) != capturedPiece){
+                return false;
+            }
+        } else if(board.getPieceIndex(to) != (capturedPiece == MoveEncoding.NO_PIECE ? MutableBoard.EMPTY : capturedPiece)
+                || (capturedPiece != MoveEncoding.NO_PIECE && capturedPiece / BoardUtils.NUM_PIECE_TYPES == alliance.ordinal())){
+            return false;
+        }
+        if(!canReach(board, move, alliance)){
+            return false;
+        }
+        board.makeMove(move);
+        final boolean leavesKingSafe = !board.isKingAttacked(alliance);
+        board.unmakeMove();
+        return leavesKingSafe;
+    }
+
+    //Whether the moved piece can go from its tile to the destination, ignoring the king's safety
+    private static boolean canReach(final MutableBoard board, final int move, final Alliance alliance) {
+        final int from = MoveEncoding.from(move);
+        final int to = MoveEncoding.to(move);
+        final long toMask = 1L << to;
+        final long occupancy = board.getOccupancy();
+        switch(PIECE_TYPES[MoveEncoding.movedPiece(move) % BoardUtils.NUM_PIECE_TYPES]){
+            case PAWN:
+                final int direction = alliance.getDirection();
+                if(MoveEncoding.kind(move) == MoveEncoding.PAWN_JUMP){
+                    final boolean onStartingRank = alliance.isWhite() ? BoardUtils.SECOND_RANK[from] : BoardUtils.SEVENTH_RANK[from];
+                    return onStartingRank && to == from + direction * 16
+                            && (occupancy & ((1L << (from + direction * 8)) | toMask)) == 0;
+                }
+                if(MoveEncoding.isCapture(move)){
+                    return (BoardUtils.PAWN_ATTACKS[alliance.ordinal()][from] & toMask) != 0;
+                }
+                return to == from + direction * 8;
+            case KNIGHT:
+                return (BoardUtils.KNIGHT_ATTACKS[from] & toMask) != 0;
+            case BISHOP:
+                return (MagicBitboards.bishopAttacks(from, occupancy) & toMask) != 0;
+            case ROOK:
+                return (MagicBitboards.rookAttacks(from, occupancy) & toMask) != 0;
+            case QUEEN:
+                return (MagicBitboards.queenAttacks(from, occupancy) & toMask) != 0;
+            default:
+                return (BoardUtils.KING_ATTACKS[from] & toMask) != 0;
+        }
+    }
+
+    private static void generateLegalMoves(final long[] pieceBitboards, final Alliance alliance, final int castlingRights,
+                                           final int enPassantSquare, final int moveTypes, final MoveList moves) {
+        final Alliance opponent = alliance.getOpposite();
+        final int ownBase = BoardUtils.pieceIndex(alliance, Piece.PieceType.PAWN);
+        final int enemyBase = BoardUtils.pieceIndex(opponent, Piece.PieceType.PAWN);
+        final long own = occupancy(pieceBitboards, ownBase);
+        final long enemy = occupancy(pieceBitboards, enemyBase);
+        final long occupancy = own | enemy;
+        final long targetMask = ((moveTypes & CAPTURES) != 0 ? enemy : 0L) | ((moveTypes & QUIET_MOVES) != 0 ? ~occupancy : 0L);
+        final int kingIndex = BoardUtils.pieceIndex(alliance, Piece.PieceType.KING);
+        final long kingMask = pieceBitboards[kingIndex];
+        if(kingMask == 0){
+            return;
+        }
+        final int kingTile = Long.numberOfTrailingZeros(kingMask);
+
+        //The king may not step onto an attacked tile, and it must not shield that tile from a slider itself
+        final long occupancyWithoutKing = occupancy & ~kingMask;
+        for(long targets = BoardUtils.KING_ATTACKS[kingTile] & targetMask; targets != 0; targets &= targets - 1){
+            final int to = Long.numberOfTrailingZeros(targets);
+            if(!BoardUtils.isSquareAttacked(to, opponent, occupancyWithoutKing, pieceBitboards)){
+                addMove(moves, pieceBitboards, enemyBase, enemy, kingTile, to, kingIndex);
+            }
+        }
+
+        final long checkers = BoardUtils.attackersOf(kingTile, occupancy, pieceBitboards) & enemy;
+        if(Long.bitCount(checkers) > 1){
+            //Only the king can answer a double check
+            return;
+        }
+        //Tiles a non-king move has to land on: anywhere, or onto the checker or the line between it and the king
+        final long checkMask = checkers == 0 ? ~0L : checkers | BETWEEN[kingTile][Long.numberOfTrailingZeros(checkers)];
+        final long pinned = calculatePinnedPieces(pieceBitboards, opponent, kingTile, own, enemy);
+        final long moveMask = checkMask & targetMask;
+
+        //A pinned knight can never move, it cannot stay on the pin line
+        addPieceMoves(moves, pieceBitboards, ownBase + Piece.PieceType.KNIGHT.ordinal(), pinned, enemyBase, kingTile,
+                own, enemy, moveMask, pinned);
+        addPieceMoves(moves, pieceBitboards, ownBase + Piece.PieceType.BISHOP.ordinal(), 0L, enemyBase, kingTile,
+                own, enemy, moveMask, pinned);
+        addPieceMoves(moves, pieceBitboards, ownBase + Piece.PieceType.ROOK.ordinal(), 0L, enemyBase, kingTile,
+                own, enemy, moveMask, pinned);
+        addPieceMoves(moves, pieceBitboards, ownBase + Piece.PieceType.QUEEN.ordinal(), 0L, enemyBase, kingTile,
+                own, enemy, moveMask, pinned);
+        addPawnMoves(moves, pieceBitboards, alliance, kingTile, enemy, occupancy, moveMask, pinned);
+        if(enPassantSquare != MutableBoard.EMPTY && (moveTypes & CAPTURES) != 0){
+            addEnPassantMoves(moves, pieceBitboards, alliance, kingTile, enPassantSquare, occupancy, checkMask);
+        }
+
+        if(checkers == 0 && (moveTypes & QUIET_MOVES) != 0){
+            addCastleMoves(moves, pieceBitboards, alliance, castlingRights, kingTile, occupancy);
+        }
+    }
+
+    //Own pieces that are the only thing between the king and an enemy rook, bishop or queen
+    private static long calculatePinnedPieces(final long[] pieceBitboards, final Alliance opponent, final int kingTile,
+                                              final long own, final long enemy) {
+        final long enemyQueens = pieceBitboards[BoardUtils.pieceIndex(opponent, Piece.PieceType.QUEEN)];
+        final long enemyStraight = pieceBitboards[BoardUtils.pieceIndex(opponent, Piece.PieceType.ROOK)] | enemyQueens;
+        final long enemyDiagonal = pieceBitboards[BoardUtils.pieceIndex(opponent, Piece.PieceType.BISHOP)] | enemyQueens;
+        //Looking from the king through its own pieces, the first enemy slider on each ray is a possible pinner
+        long pinners = (MagicBitboards.rookAttacks(kingTile, enemy) & enemyStraight)
+                | (MagicBitboards.bishopAttacks(kingTile, enemy) & enemyDiagonal);
+        long pinned = 0L;
+        for(; pinners != 0; pinners &= pinners - 1){
+            final long blockers = BETWEEN[kingTile][Long.numberOfTrailingZeros(pinners)] & own;
+            if(Long.bitCount(blockers) == 1){
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    //Moves of the knights, bishops, rooks or queens of one piece index, leaving out the excluded pieces.
+    //The move mask holds the tiles that answer a check and are of the wanted kind.
+    private static void addPieceMoves(final MoveList moves, final long[] pieceBitboards, final int pieceIndex,
+                                      final long excluded, final int enemyBase, final int kingTile, final long own,
+                                      final long enemy, final long moveMask, final long pinned) {
+        final long occupancy = own | enemy;
+        final Piece.PieceType pieceType = PIECE_TYPES[pieceIndex % BoardUtils.NUM_PIECE_TYPES];
+        for(long remaining = pieceBitboards[pieceIndex] & ~excluded; remaining != 0; remaining &= remaining - 1){
+            final int from = Long.numberOfTrailingZeros(remaining);
+            long targets;
+            switch(pieceType){
+                case KNIGHT:
+                    targets = BoardUtils.KNIGHT_ATTACKS[from];
+                    break;
+                case BISHOP:
+                    targets = MagicBitboards.bishopAttacks(from, occupancy);
+                    break;
+                case ROOK:
+                    targets = MagicBitboards.rookAttacks(from, occupancy);
+                    break;
+                default:
+                    targets = MagicBitboards.queenAttacks(from, occupancy);
+                    break;
+            }
+            targets &= moveMask;
+            if((pinned & (1L << from)) != 0){
+                targets &= LINE[kingTile][from];
+            }
+            for(; targets != 0; targets &= targets - 1){
+                addMove(moves, pieceBitboards, enemyBase, enemy, from, Long.numberOfTrailingZeros(targets), pieceIndex);
+            }
+        }
+    }
+
+    private static void addPawnMoves(final MoveList moves, final long[] pieceBitboards, final Alliance alliance,
+                                     final int kingTile, final long enemy, final long occupancy,
+                                     final long moveMask, final long pinned) {
+        final int direction = alliance.getDirection();
+        final int pawnIndex = BoardUtils.pieceIndex(alliance, Piece.PieceType.PAWN);
+        final int enemyBase = BoardUtils.pieceIndex(alliance.getOpposite(), Piece.PieceType.PAWN);
+        for(long pawns = pieceBitboards[pawnIndex]; pawns != 0; pawns &= pawns - 1){
+            final int from = Long.numberOfTrailingZeros(pawns);
+            final long allowed = (pinned & (1L << from)) != 0 ? moveMask & LINE[kingTile][from] : moveMask;
+
+            final int pushTile = from + direction * 8;
+            if(BoardUtils.isValidTileCoordinate(pushTile) && (occupancy & (1L << pushTile)) == 0){
+                if((allowed & (1L << pushTile)) != 0){
+                    moves.add(MoveEncoding.encode(from, pushTile, pawnIndex, MoveEncoding.NO_PIECE, MoveEncoding.NORMAL_MOVE));
+                }
+                final int jumpTile = from + direction * 16;
+                final boolean onStartingRank = alliance.isWhite() ? BoardUtils.SECOND_RANK[from] : BoardUtils.SEVENTH_RANK[from];
+                if(onStartingRank && (occupancy & (1L << jumpTile)) == 0 && (allowed & (1L << jumpTile)) != 0){
+                    moves.add(MoveEncoding.encode(from, jumpTile, pawnIndex, MoveEncoding.NO_PIECE, MoveEncoding.PAWN_JUMP));
+                }
+            }
+
+            for(long captures = BoardUtils.PAWN_ATTACKS[alliance.ordinal()][from] & enemy & allowed; captures != 0; captures &= captures - 1){
+                addMove(moves, pieceBitboards, enemyBase, enemy, from, Long.numberOfTrailingZeros(captures), pawnIndex);
+            }
+        }
+    }
+
+    //En passant removes two pawns from one rank at once, which can uncover a slider on the king,
+    //so each capture is checked by looking at the king's rays with both pawns gone
+    private static void addEnPassantMoves(final MoveList moves, final long[] pieceBitboards, final Alliance alliance,
+                                          final int kingTile, final int to, final long occupancy, final long checkMask) {
+        final Alliance opponent = alliance.getOpposite();
+        final int capturedTile = to + opponent.getDirection() * 8;
+        final long capturedMask = 1L << capturedTile;
+        //In check, taking en passant only helps if the jumped pawn is the checker
+        if((checkMask & capturedMask) == 0 && (checkMask & (1L << to)) == 0){
+            return;
+        }
+        final int pawnIndex = BoardUtils.pieceIndex(alliance, Piece.PieceType.PAWN);
+        final int enemyPawnIndex = BoardUtils.pieceIndex(opponent, Piece.PieceType.PAWN);
+        final long enemyQueens = pieceBitboards[BoardUtils.pieceIndex(opponent, Piece.PieceType.QUEEN)];
+        final long enemyStraight = pieceBitboards[BoardUtils.pieceIndex(opponent, Piece.PieceType.ROOK)] | enemyQueens;
+        final long enemyDiagonal = pieceBitboards[BoardUtils.pieceIndex(opponent, Piece.PieceType.BISHOP)] | enemyQueens;
+        final long enemyOthers = (BoardUtils.KNIGHT_ATTACKS[kingTile] & pieceBitboards[BoardUtils.pieceIndex(opponent, Piece.PieceType.KNIGHT)])
+                | (BoardUtils.PAWN_ATTACKS[alliance.ordinal()][kingTile] & pieceBitboards[enemyPawnIndex] & ~capturedMask);
+
+        for(long pawns = BoardUtils.PAWN_ATTACKS[opponent.ordinal()][to] & pieceBitboards[pawnIndex]; pawns != 0; pawns &= pawns - 1){
+            final int from = Long.numberOfTrailingZeros(pawns);
+            final long occupancyAfter = (occupancy & ~(1L << from) & ~capturedMask) | (1L << to);
+            if(enemyOthers == 0
+                    && (MagicBitboards.rookAttacks(kingTile, occupancyAfter) & enemyStraight) == 0
+                    && (MagicBitboards.bishopAttacks(kingTile, occupancyAfter) & enemyDiagonal) == 0){
+                moves.add(MoveEncoding.encode(from, to, pawnIndex, enemyPawnIndex, MoveEncoding.EN_PASSANT));
+            }
+        }
+    }
+
+    //The king must not be in check, the tiles between king and rook must be empty,
+    //and the king must not pass or land on an attacked tile
+    private static void addCastleMoves(final MoveList moves, final long[] pieceBitboards, final Alliance alliance,
+                                       final int castlingRights, final int kingTile, final long occupancy) {
+        final int kingIndex = BoardUtils.pieceIndex(alliance, Piece.PieceType.KING);
+        if(canCastle(pieceBitboards, alliance, castlingRights, kingTile, occupancy, true)){
+            moves.add(MoveEncoding.encode(kingTile, kingTile + 2, kingIndex, MoveEncoding.NO_PIECE, MoveEncoding.CASTLE));
+        }
+        if(canCastle(pieceBitboards, alliance, castlingRights, kingTile, occupancy, false)){
+            moves.add(MoveEncoding.encode(kingTile, kingTile - 2, kingIndex, MoveEncoding.NO_PIECE, MoveEncoding.CASTLE));
+        }
+    }
+
+    //Castling rights are only kept while king and rook stand unmoved, so the rights say where they are
+    private static boolean canCastle(final long[] pieceBitboards, final Alliance alliance, final int castlingRights,
+                                     final int kingTile, final long occupancy, final boolean kingSide) {
+        final Alliance opponent = alliance.getOpposite();
+        final int right = kingSide ?
+                (alliance.isWhite() ? BoardUtils.WHITE_KING_SIDE_CASTLE : BoardUtils.BLACK_KING_SIDE_CASTLE) :
+                (alliance.isWhite() ? BoardUtils.WHITE_QUEEN_SIDE_CASTLE : BoardUtils.BLACK_QUEEN_SIDE_CASTLE);
+        final int step = kingSide ? 1 : -1;
+        final int rookTile = kingSide ? kingTile + 3 : kingTile - 4;
+        return (castlingRights & right) != 0
+                && (occupancy & (BETWEEN[kingTile][rookTile])) == 0
+                && !BoardUtils.isSquareAttacked(kingTile + step, opponent, occupancy, pieceBitboards)
+                && !BoardUtils.isSquareAttacked(kingTile + 2 * step, opponent, occupancy, pieceBitboards);
+    }
+
+    private static void addMove(final MoveList moves, final long[] pieceBitboards, final int enemyBase, final long enemy,
+                                final int from, final int to, final int movedPiece) {
+        int capturedPiece = MoveEncoding.NO_PIECE;
+        if((enemy & (1L << to)) != 0){
+            for(int pieceIndex = enemyBase; pieceIndex < enemyBase + BoardUtils.NUM_PIECE_TYPES; pieceIndex++){
+                if((pieceBitboards[pieceIndex] & (1L << to)) != 0){
+                    capturedPiece = pieceIndex;
+                    break;
+                }
+            }
+        }
+        moves.add(MoveEncoding.encode(from, to, movedPiece, capturedPiece, MoveEncoding.NORMAL_MOVE));
+    }
+
+    //Union of the bitboards of the six piece types starting at the given piece index
+    private static long occupancy(final long[] pieceBitboards, final int base) {
+        long occupancy = 0L;
+        for(int pieceIndex = base; pieceIndex < base + BoardUtils.NUM_PIECE_TYPES; pieceIndex++){
+            occupancy |= pieceBitboards[pieceIndex];
+        }
+        return occupancy;
+    }
+}
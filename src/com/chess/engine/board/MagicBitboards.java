@@ -0,0 +1,152 @@
+package com.chess.engine.board;
+
+//Precomputed attack tables for rooks, bishops and queens.
+//The blockers on a slider's rays are multiplied by a per-tile magic number, and the top bits
+//of the product index a table holding the attacked tiles for that exact blocker layout.
+public class MagicBitboards {
+
+    private static final int[] ROOK_DIRECTIONS = {-8, -1, 1, 8};
+    private static final int[] BISHOP_DIRECTIONS = {-9, -7, 7, 9};
+
+    private static final long[] ROOK_MASKS = new long[BoardUtils.NUM_TILES];
+    //Magic numbers per tile, found once offline by trying sparse random numbers until no two blocker
+    //layouts with different attacks land on the same index
+    private static final long[] ROOK_MAGICS = {
+            0x0A80001080244000L, 0x8440049000200240L, 0xA080200080100008L, 0x4300086205001000L,
+            0x66002004700A0008L, 0x3200081001040200L, 0x3080008002000100L, 0x0E00004081082204L,
+            0x1400800080304000L, 0x1020401000200040L, 0x4000801000802000L, 0x0002000C20401200L,
+            0x0020800400800800L, 0x0080800400800200L, 0x4004001008020481L, 0x0140800040800100L,
+            0x00C0828000204000L, 0x0040010020408901L, 0x0841010040200010L, 0x240012000A420021L,
+            0x1200808004000800L, 0x0002010100040008L, 0x1402030100020004L, 0x02D0820000840041L,
+            0x2000400080208004L, 0x21A0008080400028L, 0x0546004200188020L, 0x0430002100110009L,
+            0x0A08000404004020L, 0x8002010180800400L, 0x4608014400029008L, 0x0209010200008044L,
+            0x4040400081800220L, 0x1002400081802000L, 0x8B00200080801000L, 0x0408000880801002L,
+            0x4108020040400400L, 0x2002000802001004L, 0x4420080204001001L, 0x1068059242000104L,
+            0x0400804002218000L, 0x02002010044A4000L, 0x8020020400101000L, 0x00021200200A0040L,
+            0x0042000804120020L, 0x0006004510420008L, 0x0A28810208440050L, 0x0108290040860004L,
+            0x0000800440002480L, 0x0020008040006180L, 0x8082500260008480L, 0x4008021000800880L,
+            0x0000100408010100L, 0x0200800200040080L, 0x4080021008410400L, 0x0100801100006080L,
+            0x2080008020401101L, 0x2000110022008842L, 0x2841002000440811L, 0x2300100104A10009L,
+            0x0002000410200902L, 0x000100020804000BL, 0x0212000084014802L, 0x000020430085240AL
+    };
+    private static final int[] ROOK_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_OFFSETS = new int[BoardUtils.NUM_TILES];
+    private static final long[] ROOK_ATTACKS;
+
+    private static final long[] BISHOP_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] BISHOP_MAGICS = {
+            0x0421204200802080L, 0x80A0082200604000L, 0x0404040C10400024L, 0x00B4410420200840L,
+            0x0254042200000040L, 0x1220880440406020L, 0x1224420221200000L, 0x0300202108384020L,
+            0x0000410421244100L, 0x4404080838004440L, 0x4300424401002000L, 0x0808440404822002L,
+            0x020C440420800000L, 0x01B8120804040028L, 0x0002020110021003L, 0x0000162409041000L,
+            0x5840000704040409L, 0x0004507050420840L, 0x00B0100443020010L, 0x0020210202004140L,
+            0x0018100101400000L, 0x0001030200822101L, 0x18041C02088C0480L, 0x0000800900880180L,
+            0x0020208952020201L, 0x0101206008020402L, 0x0004100002082840L, 0x4440040002010910L,
+            0x0002840202802004L, 0x000802002491C400L, 0x8202004000880800L, 0x0002002200808800L,
+            0x0001200801101000L, 0x048814100424F100L, 0x0004A0B000080080L, 0x2032200800010104L,
+            0x0010008200002200L, 0x08600B020A010084L, 0x2110120048409400L, 0x0228020081042088L,
+            0x0610A82010020800L, 0x6002421005001089L, 0x1441010801080200L, 0x6200620124000600L,
+            0x0006840408218400L, 0x0002200409002020L, 0x0120088230840042L, 0x133000D081000080L,
+            0x80C6010148410000L, 0x8002010456026C02L, 0x82000020A4100000L, 0x1002010084041220L,
+            0x0200608460820080L, 0x201044081818434CL, 0x0090101001006100L, 0x4049106400802000L,
+            0x0002210130100200L, 0x0000008410821000L, 0x0000020A06010480L, 0x0420040080840400L,
+            0x8401000010020203L, 0x9410080890101082L, 0x0000202011214500L, 0x0010122848042040L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_OFFSETS = new int[BoardUtils.NUM_TILES];
+    private static final long[] BISHOP_ATTACKS;
+
+    static {
+        ROOK_ATTACKS = initTables(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_ATTACKS = initTables(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+    }
+
+    private MagicBitboards(){
+        throw new RuntimeException("Cannot instantiate");
+    }
+
+    //Tiles a rook on this tile attacks, including the first blocker of each ray
+    public static long rookAttacks(final int tileCoordinate, final long occupancy) {
+        return ROOK_ATTACKS[ROOK_OFFSETS[tileCoordinate] +
+                (int)(((occupancy & ROOK_MASKS[tileCoordinate]) * ROOK_MAGICS[tileCoordinate]) >>> ROOK_SHIFTS[tileCoordinate])];
+    }
+
+    //Tiles a bishop on this tile attacks, including the first blocker of each ray
+    public static long bishopAttacks(final int tileCoordinate, final long occupancy) {
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[tileCoordinate] +
+                (int)(((occupancy & BISHOP_MASKS[tileCoordinate]) * BISHOP_MAGICS[tileCoordinate]) >>> BISHOP_SHIFTS[tileCoordinate])];
+    }
+
+    public static long queenAttacks(final int tileCoordinate, final long occupancy) {
+        return rookAttacks(tileCoordinate, occupancy) | bishopAttacks(tileCoordinate, occupancy);
+    }
+
+    //Fill one shared attack table, every tile gets a slot for each subset of its relevant blockers
+    private static long[] initTables(final int[] directions, final long[] masks, final long[] magics,
+                                     final int[] shifts, final int[] offsets) {
+        int tableSize = 0;
+        for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++){
+            masks[tile] = relevantOccupancyMask(tile, directions);
+            shifts[tile] = BoardUtils.NUM_TILES - Long.bitCount(masks[tile]);
+            offsets[tile] = tableSize;
+            tableSize += 1 << Long.bitCount(masks[tile]);
+        }
+
+        final long[] table = new long[tableSize];
+        for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++){
+            //Walk every subset of the mask with the carry-rippler trick
+            long subset = 0L;
+            do{
+                final int index = offsets[tile] + (int)((subset * magics[tile]) >>> shifts[tile]);
+                table[index] = slidingAttacks(tile, subset, directions);
+                subset = (subset - masks[tile]) & masks[tile];
+            }while(subset != 0);
+        }
+        return table;
+    }
+
+    //Tiles whose occupancy can change the attack set, the board edge never blocks anything
+    private static long relevantOccupancyMask(final int tile, final int[] directions) {
+        long mask = 0L;
+        for(final int direction : directions){
+            int current = tile;
+            while(!isRayEnd(current, direction)){
+                final int next = current + direction;
+                if(isRayEnd(next, direction)){
+                    break;
+                }
+                mask |= 1L << next;
+                current = next;
+            }
+        }
+        return mask;
+    }
+
+    //Walk each ray one tile at a time, only used while building the tables
+    private static long slidingAttacks(final int tile, final long occupancy, final int[] directions) {
+        long attacks = 0L;
+        for(final int direction : directions){
+            int current = tile;
+            while(!isRayEnd(current, direction)){
+                current += direction;
+                attacks |= 1L << current;
+                if((occupancy & (1L << current)) != 0){
+                    break;
+                }
+            }
+        }
+        return attacks;
+    }
+
+    //True when one more step in this direction would leave the board or wrap around a column
+    private static boolean isRayEnd(final int tile, final int direction) {
+        final int column = tile % BoardUtils.NUM_TILES_PER_ROW;
+        if(!BoardUtils.isValidTileCoordinate(tile + direction)){
+            return true;
+        }
+        if(column == 0 && (direction == -1 || direction == -9 || direction == 7)){
+            return true;
+        }
+        return column == BoardUtils.NUM_TILES_PER_ROW - 1 && (direction == 1 || direction == 9 || direction == -7);
+    }
+}
@@ -77,9 +77,36 @@ public abstract class Move {
 
         builder.setPiece(this.movedPiece.movePiece(this));
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+        builder.setZobristKey(calculateZobristKey());
+        setMoveCounters(builder);
         return builder.build();
     }
 
+    //Hash of the board this move leads to, updated from the current board's hash
+    //by XORing out what the move removes and XORing in what it adds
+    long calculateZobristKey() {
+        final int movedPieceIndex = BoardUtils.pieceIndex(this.movedPiece.getPieceAlliance(), this.movedPiece.getPieceType());
+        final int currentCoordinate = getCurrentCoordinate();
+        final int castlingRights = this.board.getCastlingRights();
+        final int nextCastlingRights = castlingRights & BoardUtils.CASTLING_RIGHTS_MASK[currentCoordinate]
+                & BoardUtils.CASTLING_RIGHTS_MASK[this.destinationCoordinate];
+
+        long key = this.board.getZobristKey() ^ Zobrist.sideToMove();
+        key ^= Zobrist.piece(movedPieceIndex, currentCoordinate) ^ Zobrist.piece(movedPieceIndex, this.destinationCoordinate);
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(nextCastlingRights);
+        if(this.board.getEnPassantPawn() != null){
+            key ^= Zobrist.enPassant(this.board.getEnPassantPawn().getPiecePosition());
+        }
+        return key;
+    }
+
+    //The clock restarts on captures and pawn moves, the move number goes up once black has moved
+    void setMoveCounters(final Board.Builder builder) {
+        final boolean resetsClock = isAttack() || this.movedPiece.getPieceType() == Piece.PieceType.PAWN;
+        builder.setMoveCounters(resetsClock ? 0 : this.board.getHalfmoveClock() + 1,
+                this.board.getFullmoveNumber() + (this.movedPiece.getPieceAlliance().isBlack() ? 1 : 0));
+    }
+
     public Piece getMovedPiece(){
         return this.movedPiece;
     }
@@ -99,11 +126,6 @@ public abstract class Move {
             this.attackedPiece = attackedPiece;
         }
 
-        @Override
-        public Board execute() {
-            return null;
-        }
-
         @Override
         public boolean isAttack(){
             return true;
@@ -113,6 +135,13 @@ public abstract class Move {
             return this.attackedPiece;
         }
 
+        @Override
+        long calculateZobristKey() {
+            return super.calculateZobristKey() ^ Zobrist.piece(
+                    BoardUtils.pieceIndex(this.attackedPiece.getPieceAlliance(), this.attackedPiece.getPieceType()),
+                    this.attackedPiece.getPiecePosition());
+        }
+
         @Override
         public int hashCode(){
             return this.attackedPiece.hashCode() + super.hashCode();
@@ -122,7 +151,7 @@ public abstract class Move {
             if(this == object){
                 return true;
             }
-            if(!(object instanceof Move)){
+            if(!(object instanceof AttackingMove)){
                 return false;
             }
             final AttackingMove otherMove = (AttackingMove) object;
@@ -135,7 +164,51 @@ public abstract class Move {
             super(board, movedPiece, destinationCoordinate);
 
         }
-        //This method is used to execute a new move
+    }
+    public static class PawnAttackMove extends AttackingMove {
+        public PawnAttackMove(Board board, Piece movedPiece, int destinationCoordinate,Piece attackedPiece) {
+            super(board, movedPiece, destinationCoordinate,attackedPiece);
+        }
+
+
+    }
+    public static final class PawnEnPassantAttackMove extends PawnAttackMove {
+        public PawnEnPassantAttackMove(Board board, Piece movedPiece, int destinationCoordinate,Piece attackedPiece) {
+            super(board, movedPiece, destinationCoordinate,attackedPiece);
+        }
+
+        //The captured pawn is not on the destination tile, so it has to be left out explicitly
+        @Override
+        public Board execute(){
+            final Board.Builder builder = new Board.Builder();
+            for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
+                if (!this.movedPiece.equals(piece)) {
+                    builder.setPiece(piece);
+                }
+            }
+            for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
+                if (!piece.equals(this.getAttackedPiece())) {
+                    builder.setPiece(piece);
+                }
+            }
+            builder.setPiece(this.movedPiece.movePiece(this));
+            builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey());
+            setMoveCounters(builder);
+            return builder.build();
+        }
+    }
+    public static final class PawnJump extends Move {
+        public PawnJump(Board board, Piece movedPiece, int destinationCoordinate) {
+            super(board, movedPiece, destinationCoordinate);
+        }
+
+        @Override
+        long calculateZobristKey() {
+            return super.calculateZobristKey() ^ Zobrist.enPassant(this.destinationCoordinate);
+        }
+
+        //The jumped pawn can be taken en passant on the next move
         @Override
         public Board execute(){
 
@@ -158,26 +231,11 @@ public abstract class Move {
             builder.setPiece(movedPawn);
             builder.setEnpassantPawn(movedPawn);
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey());
+            setMoveCounters(builder);
             return builder.build();
         }
     }
-    public static class PawnAttackMove extends AttackingMove {
-        public PawnAttackMove(Board board, Piece movedPiece, int destinationCoordinate,Piece attackedPiece) {
-            super(board, movedPiece, destinationCoordinate,attackedPiece);
-        }
-
-
-    }
-    public static final class PawnEnPassantAttackMove extends PawnAttackMove {
-        public PawnEnPassantAttackMove(Board board, Piece movedPiece, int destinationCoordinate,Piece attackedPiece) {
-            super(board, movedPiece, destinationCoordinate,attackedPiece);
-        }
-    }
-    public static final class PawnJump extends Move {
-        public PawnJump(Board board, Piece movedPiece, int destinationCoordinate) {
-            super(board, movedPiece, destinationCoordinate);
-        }
-    }
     public static class CastleMove extends Move {
 
         protected final Rook castleRook;
@@ -198,11 +256,26 @@ public abstract class Move {
             return this.castleRook;
         }
 
+        public int getCastleRookStart(){
+            return this.castleRookStart;
+        }
+
+        public int getCastleRookDestination(){
+            return this.castleRookDestination;
+        }
+
         @Override
         public boolean isCastlingMove(){
             return true;
         }
 
+        @Override
+        long calculateZobristKey() {
+            final int rookIndex = BoardUtils.pieceIndex(this.castleRook.getPieceAlliance(), Piece.PieceType.ROOK);
+            return super.calculateZobristKey() ^ Zobrist.piece(rookIndex, this.castleRookStart)
+                    ^ Zobrist.piece(rookIndex, this.castleRookDestination);
+        }
+
         @Override
         public Board execute(){
             //Create new builder object
@@ -219,8 +292,10 @@ public abstract class Move {
                 builder.setPiece(piece);
             }
             builder.setPiece(this.movedPiece.movePiece(this));
-            builder.setPiece(new Rook(this.castleRook.getPieceAlliance(),this.castleRookDestination));
+            builder.setPiece(new Rook(this.castleRook.getPieceAlliance(),this.castleRookDestination, false));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey());
+            setMoveCounters(builder);
 
             return builder.build();
         }
@@ -266,12 +341,17 @@ public abstract class Move {
             throw new RuntimeException("Cannot instantiate");
         }
 
+        //Only the matching move is turned into a Move object, the others stay encoded
         public static Move createMove(final Board board,
                                       final int currentCoordinate,
                                       final int destinationCoordinate){
-            for(final Move move: board.getAllLegalMoves()){
-                if(move.getCurrentCoordinate() == currentCoordinate && move.getDestinationCoordinate() == destinationCoordinate){
-                    return move;
+            final MoveList moves = new MoveList();
+            LegalMoveGenerator.generateLegalMoves(board, board.whitePlayer().getAlliance(), moves);
+            LegalMoveGenerator.generateLegalMoves(board, board.blackPlayer().getAlliance(), moves);
+            for(int i = 0; i < moves.size(); i++){
+                final int move = moves.get(i);
+                if(MoveEncoding.from(move) == currentCoordinate && MoveEncoding.to(move) == destinationCoordinate){
+                    return MoveEncoding.toMove(board, move);
                 }
             }
             return NULL_MOVE;
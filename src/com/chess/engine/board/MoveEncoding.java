@@ -0,0 +1,130 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Rook;
+
+//Packs a move into a single int so move generation and search need no Move objects.
+//  bits  0-5   tile the piece moves from
+//  bits  6-11  tile the piece moves to
+//  bits 12-15  piece index of the moved piece, as given by BoardUtils.pieceIndex
+//  bits 16-19  piece index of the captured piece, NO_PIECE if nothing is captured
+//  bits 20-21  move kind
+//Moves are turned into the Move classes only where the GUI and players need them.
+public class MoveEncoding {
+
+    //Move kinds that need more than taking the piece from one tile to another
+    public static final int NORMAL_MOVE = 0;
+    public static final int PAWN_JUMP = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int CASTLE = 3;
+
+    //Captured piece of a move that captures nothing
+    public static final int NO_PIECE = 0xF;
+
+    //No real move encodes to zero, the captured piece field of a quiet move is never zero
+    public static final int NULL_MOVE = 0;
+
+    private static final int TO_SHIFT = 6;
+    private static final int MOVED_PIECE_SHIFT = 12;
+    private static final int CAPTURED_PIECE_SHIFT = 16;
+    private static final int KIND_SHIFT = 20;
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+
+    private MoveEncoding(){
+        throw new RuntimeException("Cannot instantiate");
+    }
+
+    public static int encode(final int from, final int to, final int movedPiece, final int capturedPiece, final int kind) {
+        return from | (to << TO_SHIFT) | (movedPiece << MOVED_PIECE_SHIFT)
+                | (capturedPiece << CAPTURED_PIECE_SHIFT) | (kind << KIND_SHIFT);
+    }
+
+    public static int from(final int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(final int move) {
+        return (move >>> TO_SHIFT) & 0x3F;
+    }
+
+    public static int movedPiece(final int move) {
+        return (move >>> MOVED_PIECE_SHIFT) & 0xF;
+    }
+
+    public static int capturedPiece(final int move) {
+        return (move >>> CAPTURED_PIECE_SHIFT) & 0xF;
+    }
+
+    public static int kind(final int move) {
+        return (move >>> KIND_SHIFT) & 0x3;
+    }
+
+    public static boolean isCapture(final int move) {
+        return capturedPiece(move) != NO_PIECE;
+    }
+
+    //Tile of the piece an en passant move takes, every other capture takes the piece on the destination
+    public static int capturedTile(final int move) {
+        if(kind(move) != EN_PASSANT){
+            return to(move);
+        }
+        return to(move) - ALLIANCES[movedPiece(move) / BoardUtils.NUM_PIECE_TYPES].getDirection() * 8;
+    }
+
+    //Encode a move of the Move classes, made on the board it was generated from
+    public static int fromMove(final Move move) {
+        if(move == Move.NULL_MOVE){
+            return NULL_MOVE;
+        }
+        final Piece movedPiece = move.getMovedPiece();
+        final int kind;
+        if(move.isCastlingMove()){
+            kind = CASTLE;
+        } else if(move instanceof Move.PawnEnPassantAttackMove){
+            kind = EN_PASSANT;
+        } else if(move instanceof Move.PawnJump){
+            kind = PAWN_JUMP;
+        } else {
+            kind = NORMAL_MOVE;
+        }
+        final Piece attackedPiece = move.isAttack() ? ((Move.AttackingMove)move).getAttackedPiece() : null;
+        final int capturedPiece = attackedPiece == null ? NO_PIECE :
+                BoardUtils.pieceIndex(attackedPiece.getPieceAlliance(), attackedPiece.getPieceType());
+        return encode(move.getCurrentCoordinate(), move.getDestinationCoordinate(),
+                BoardUtils.pieceIndex(movedPiece.getPieceAlliance(), movedPiece.getPieceType()), capturedPiece, kind);
+    }
+
+    //Build the Move object of an encoded move, for the board the move was generated on
+    public static Move toMove(final Board board, final int move) {
+        if(move == NULL_MOVE){
+            return Move.NULL_MOVE;
+        }
+        final int to = to(move);
+        final Piece movedPiece = board.getPiece(from(move));
+        switch(kind(move)){
+            case CASTLE:
+                if(to % BoardUtils.NUM_TILES_PER_ROW == 6){
+                    return new Move.KingSideCastleMove(board, movedPiece, to, (Rook)board.getPiece(to + 1), to + 1, to - 1);
+                }
+                return new Move.QueenSideCastleMove(board, movedPiece, to, (Rook)board.getPiece(to - 2), to - 2, to + 1);
+            case EN_PASSANT:
+                return new Move.PawnEnPassantAttackMove(board, movedPiece, to, board.getPiece(capturedTile(move)));
+            case PAWN_JUMP:
+                return new Move.PawnJump(board, movedPiece, to);
+            default:
+                if(movedPiece.getPieceType() == Piece.PieceType.PAWN){
+                    return isCapture(move) ? new Move.PawnAttackMove(board, movedPiece, to, board.getPiece(to))
+                                           : new Move.PawnMove(board, movedPiece, to);
+                }
+                return isCapture(move) ? new Move.AttackingMove(board, movedPiece, to, board.getPiece(to))
+                                       : new Move.MajorMove(board, movedPiece, to);
+        }
+    }
+
+    //Tiles the move goes from and to, such as e2e4
+    public static String toString(final int move) {
+        return BoardUtils.getPositionAtCoordinate(from(move)) + BoardUtils.getPositionAtCoordinate(to(move));
+    }
+}
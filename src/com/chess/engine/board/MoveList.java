@@ -0,0 +1,77 @@
+package com.chess.engine.board;
+
+//Growable list of moves encoded by MoveEncoding, backed by a plain int array.
+//Clearing keeps the array, so one list can be filled again and again without creating garbage.
+public class MoveList {
+
+    //More than the most legal moves any chess position has
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(final int capacity) {
+        this.moves = new int[capacity];
+        this.size = 0;
+    }
+
+    public void add(final int move) {
+        if(this.size == this.moves.length){
+            final int[] grown = new int[this.moves.length * 2];
+            System.arraycopy(this.moves, 0, grown, 0, this.size);
+            this.moves = grown;
+        }
+        this.moves[this.size++] = move;
+    }
+
+    public int get(final int index) {
+        if(index >= this.size){
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + this.size);
+        }
+        return this.moves[index];
+    }
+
+    public void swap(final int first, final int second) {
+        final int move = this.moves[first];
+        this.moves[first] = this.moves[second];
+        this.moves[second] = move;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    //Index of the move in the list, -1 if it is not there
+    public int indexOf(final int move) {
+        for(int i = 0; i < this.size; i++){
+            if(this.moves[i] == move){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("[");
+        for(int i = 0; i < this.size; i++){
+            if(i > 0){
+                builder.append(", ");
+            }
+            builder.append(MoveEncoding.toString(this.moves[i]));
+        }
+        return builder.append(']').toString();
+    }
+}
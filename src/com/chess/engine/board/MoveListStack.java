@@ -0,0 +1,26 @@
+package com.chess.engine.board;
+
+//One MoveList per ply, so a depth-first walk over the move tree can generate the moves of
+//every node into a buffer that already exists. Each thread walking a tree needs its own stack.
+public class MoveListStack {
+
+    private final MoveList[] moveLists;
+
+    public MoveListStack(final int maxPly) {
+        this.moveLists = new MoveList[maxPly];
+        for(int ply = 0; ply < maxPly; ply++){
+            this.moveLists[ply] = new MoveList();
+        }
+    }
+
+    //The buffer of the ply, cleared and ready to be filled
+    public MoveList get(final int ply) {
+        final MoveList moveList = this.moveLists[ply];
+        moveList.clear();
+        return moveList;
+    }
+
+    public int maxPly() {
+        return this.moveLists.length;
+    }
+}
@@ -0,0 +1,345 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
+//A position that is changed in place by makeMove and restored by unmakeMove.
+//Search visits far too many nodes to build a new Board for each of them, so it works on one
+//MutableBoard instead. Board stays the immutable type used by the GUI and the players.
+//A Board does not remember the moves that led to it, so repetitions of positions from earlier in
+//the game are only found if their keys are handed to the constructor.
+public class MutableBoard {
+
+    //Move kinds that need more than taking the piece from one tile to another
+    public static final int NORMAL_MOVE = MoveEncoding.NORMAL_MOVE;
+    public static final int PAWN_JUMP = MoveEncoding.PAWN_JUMP;
+    public static final int EN_PASSANT = MoveEncoding.EN_PASSANT;
+    public static final int CASTLE = MoveEncoding.CASTLE;
+
+    //Marks an empty tile or a missing en passant tile
+    public static final int EMPTY = -1;
+
+    //Longest line of moves that can be made before they have to be unmade
+    private static final int MAX_PLY = 1024;
+
+    private static final long[] NO_GAME_KEYS = new long[0];
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+    private static final int PAWN_TYPE = Piece.PieceType.PAWN.ordinal();
+
+    //Same layout as the bitboards of Board
+    private final long[] pieceBitboards = new long[BoardUtils.NUM_PIECE_INDEXES];
+    private final long[] allianceOccupancy = new long[ALLIANCES.length];
+
+    //Piece index standing on each tile, EMPTY if there is none
+    private final int[] pieceOnTile = new int[BoardUtils.NUM_TILES];
+
+    private Alliance sideToMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private long zobristKey;
+    //Zobrist hash of the pawns alone, for caching what only depends on the pawn structure
+    private long pawnKey;
+    //Moves since the last capture or pawn move, and the number of the move being played
+    private int halfmoveClock;
+    private int fullmoveNumber;
+
+    //Piece-square sums from white's side and the game phase, kept up to date by putPiece and
+    //removePiece so evaluating never has to look at the tiles
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+
+    //Undo stack, entry i holds everything needed to take back the i-th move made
+    private final int[] undoFrom = new int[MAX_PLY];
+    private final int[] undoTo = new int[MAX_PLY];
+    private final int[] undoKind = new int[MAX_PLY];
+    private final int[] undoCapturedPiece = new int[MAX_PLY];
+    private final int[] undoCastlingRights = new int[MAX_PLY];
+    private final int[] undoEnPassantSquare = new int[MAX_PLY];
+    private final long[] undoZobristKey = new long[MAX_PLY];
+    private final int[] undoHalfmoveClock = new int[MAX_PLY];
+    private int ply;
+
+    //Zobrist keys of the positions the game went through before the board this was built from
+    private final long[] gameKeys;
+
+    public MutableBoard(final Board board) {
+        this(board, NO_GAME_KEYS);
+    }
+
+    //Game keys are oldest first and end with the position just before the board, so the search
+    //can score a return to one of them as a repetition
+    public MutableBoard(final Board board, final long[] gameKeys) {
+        this.gameKeys = gameKeys;
+        Arrays.fill(this.pieceOnTile, EMPTY);
+        for(long occupied = board.getOccupancy(); occupied != 0; occupied &= occupied - 1){
+            final int tileCoordinate = Long.numberOfTrailingZeros(occupied);
+            final Piece piece = board.getPiece(tileCoordinate);
+            putPiece(tileCoordinate, BoardUtils.pieceIndex(piece.getPieceAlliance(), piece.getPieceType()));
+        }
+        this.sideToMove = board.currentPlayer().getAlliance();
+        this.castlingRights = board.getCastlingRights();
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        this.enPassantSquare = enPassantPawn == null ? EMPTY :
+                enPassantPawn.getPiecePosition() - enPassantPawn.getPieceAlliance().getDirection() * 8;
+        this.zobristKey = board.getZobristKey();
+        this.halfmoveClock = board.getHalfmoveClock();
+        this.fullmoveNumber = board.getFullmoveNumber();
+        this.ply = 0;
+    }
+
+    //Make a move produced by the Board move generators
+    public void makeMove(final Move move) {
+        final int kind;
+        if(move.isCastlingMove()){
+            kind = CASTLE;
+        } else if(move instanceof Move.PawnEnPassantAttackMove){
+            kind = EN_PASSANT;
+        } else if(move instanceof Move.PawnJump){
+            kind = PAWN_JUMP;
+        } else {
+            kind = NORMAL_MOVE;
+        }
+        makeMove(move.getCurrentCoordinate(), move.getDestinationCoordinate(), kind);
+    }
+
+    //Make a move encoded by MoveEncoding
+    public void makeMove(final int move) {
+        makeMove(MoveEncoding.from(move), MoveEncoding.to(move), MoveEncoding.kind(move));
+    }
+
+    public void makeMove(final int from, final int to, final int kind) {
+        final int capturedTile = kind == EN_PASSANT ? to - this.sideToMove.getDirection() * 8 : to;
+        final int capturedPiece = this.pieceOnTile[capturedTile];
+
+        this.undoFrom[this.ply] = from;
+        this.undoTo[this.ply] = to;
+        this.undoKind[this.ply] = kind;
+        this.undoCapturedPiece[this.ply] = capturedPiece;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassantSquare[this.ply] = this.enPassantSquare;
+        this.undoZobristKey[this.ply] = this.zobristKey;
+        this.undoHalfmoveClock[this.ply] = this.halfmoveClock;
+        this.ply++;
+
+        if(capturedPiece != EMPTY){
+            removePiece(capturedTile);
+        }
+        final int movedPiece = removePiece(from);
+        putPiece(to, movedPiece);
+        this.halfmoveClock = capturedPiece != EMPTY || movedPiece % BoardUtils.NUM_PIECE_TYPES == PAWN_TYPE ? 0 : this.halfmoveClock + 1;
+        if(!this.sideToMove.isWhite()){
+            this.fullmoveNumber++;
+        }
+        if(kind == CASTLE){
+            putPiece(castleRookDestination(to), removePiece(castleRookStart(to)));
+        }
+
+        //Pieces were hashed by putPiece and removePiece, the rest of the state is hashed here
+        this.zobristKey ^= Zobrist.castling(this.castlingRights);
+        this.castlingRights &= BoardUtils.CASTLING_RIGHTS_MASK[from] & BoardUtils.CASTLING_RIGHTS_MASK[to];
+        this.zobristKey ^= Zobrist.castling(this.castlingRights);
+        if(this.enPassantSquare != EMPTY){
+            this.zobristKey ^= Zobrist.enPassant(this.enPassantSquare);
+        }
+        this.enPassantSquare = kind == PAWN_JUMP ? from + this.sideToMove.getDirection() * 8 : EMPTY;
+        if(this.enPassantSquare != EMPTY){
+            this.zobristKey ^= Zobrist.enPassant(this.enPassantSquare);
+        }
+        this.zobristKey ^= Zobrist.sideToMove();
+        this.sideToMove = this.sideToMove.getOpposite();
+    }
+
+    //Take back the last move made
+    public void unmakeMove() {
+        if(this.ply == 0){
+            throw new RuntimeException("No move to unmake");
+        }
+        this.ply--;
+        final int from = this.undoFrom[this.ply];
+        final int to = this.undoTo[this.ply];
+        final int kind = this.undoKind[this.ply];
+        this.sideToMove = this.sideToMove.getOpposite();
+
+        putPiece(from, removePiece(to));
+        if(kind == CASTLE){
+            putPiece(castleRookStart(to), removePiece(castleRookDestination(to)));
+        }
+        final int capturedPiece = this.undoCapturedPiece[this.ply];
+        if(capturedPiece != EMPTY){
+            putPiece(kind == EN_PASSANT ? to - this.sideToMove.getDirection() * 8 : to, capturedPiece);
+        }
+
+        this.castlingRights = this.undoCastlingRights[this.ply];
+        this.enPassantSquare = this.undoEnPassantSquare[this.ply];
+        this.zobristKey = this.undoZobristKey[this.ply];
+        this.halfmoveClock = this.undoHalfmoveClock[this.ply];
+        if(!this.sideToMove.isWhite()){
+            this.fullmoveNumber--;
+        }
+    }
+
+    //True if the position occurred before with the same side to move, since this board was built
+    //or among the game keys it was given
+    public boolean isRepetition() {
+        for(int i = this.ply - 2; i >= 0; i -= 2){
+            if(this.undoZobristKey[i] == this.zobristKey){
+                return true;
+            }
+        }
+        //Game key j stands for ply j - gameKeys.length. Nothing from before the last capture or pawn
+        //move can come back, so the clock bounds how far to look
+        final int oldestPly = Math.max(this.ply - this.halfmoveClock, -this.gameKeys.length);
+        for(int i = this.ply % 2 == 0 ? -2 : -1; i >= oldestPly; i -= 2){
+            if(this.gameKeys[this.gameKeys.length + i] == this.zobristKey){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //True if any piece of the given alliance attacks the tile
+    public boolean isSquareAttacked(final int tileCoordinate, final Alliance byAlliance) {
+        return BoardUtils.isSquareAttacked(tileCoordinate, byAlliance, getOccupancy(), this.pieceBitboards);
+    }
+
+    public long attackersOf(final int tileCoordinate) {
+        return BoardUtils.attackersOf(tileCoordinate, getOccupancy(), this.pieceBitboards);
+    }
+
+    //True if the king of the given alliance is attacked, after makeMove this tells whether the
+    //side that just moved left its own king in check
+    public boolean isKingAttacked(final Alliance alliance) {
+        final long king = getPieces(alliance, Piece.PieceType.KING);
+        return king != 0 && isSquareAttacked(Long.numberOfTrailingZeros(king), alliance.getOpposite());
+    }
+
+    public boolean isInCheck() {
+        return isKingAttacked(this.sideToMove);
+    }
+
+    //Build an immutable Board of the current position, for handing results back to the GUI and players
+    public Board toBoard() {
+        final Board.Builder builder = new Board.Builder();
+        for(long occupied = getOccupancy(); occupied != 0; occupied &= occupied - 1){
+            final int tileCoordinate = Long.numberOfTrailingZeros(occupied);
+            final int pieceIndex = this.pieceOnTile[tileCoordinate];
+            final Piece.PieceType pieceType = PIECE_TYPES[pieceIndex % BoardUtils.NUM_PIECE_TYPES];
+            final Alliance alliance = ALLIANCES[pieceIndex / BoardUtils.NUM_PIECE_TYPES];
+            builder.setPiece(pieceType.createPiece(alliance, tileCoordinate, BoardUtils.isUnmovedPiece(pieceType, tileCoordinate, this.castlingRights)));
+        }
+        if(this.enPassantSquare != EMPTY){
+            //The jumped pawn stands one tile past the en passant tile, seen from the side that jumped
+            final Alliance jumpedAlliance = this.sideToMove.getOpposite();
+            builder.setEnpassantPawn((Pawn)builder.boardConfig.get(this.enPassantSquare + jumpedAlliance.getDirection() * 8));
+        }
+        builder.setMoveMaker(this.sideToMove);
+        builder.setMoveCounters(this.halfmoveClock, this.fullmoveNumber);
+        return builder.build();
+    }
+
+    public long getPieces(final Alliance alliance, final Piece.PieceType pieceType) {
+        return this.pieceBitboards[BoardUtils.pieceIndex(alliance, pieceType)];
+    }
+
+    //The bitboards themselves, for the move generator, which must not change them
+    long[] getPieceBitboards() {
+        return this.pieceBitboards;
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        return this.allianceOccupancy[alliance.ordinal()];
+    }
+
+    public long getOccupancy() {
+        return this.allianceOccupancy[0] | this.allianceOccupancy[1];
+    }
+
+    //Piece index on the tile as given by BoardUtils.pieceIndex, EMPTY if there is none
+    public int getPieceIndex(final int tileCoordinate) {
+        return this.pieceOnTile[tileCoordinate];
+    }
+
+    public Alliance getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return this.enPassantSquare;
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    //Sum of the middlegame piece-square values, positive when white stands better
+    public int getMiddlegameScore() {
+        return this.middlegameScore;
+    }
+
+    public int getEndgameScore() {
+        return this.endgameScore;
+    }
+
+    //Game phase as in PieceSquareTables, PieceSquareTables.MAX_PHASE with all pieces on the board
+    public int getPhase() {
+        return this.phase;
+    }
+
+    //Number of moves made that have not been unmade yet
+    public int getPly() {
+        return this.ply;
+    }
+
+    private void putPiece(final int tileCoordinate, final int pieceIndex) {
+        final long squareMask = 1L << tileCoordinate;
+        this.zobristKey ^= Zobrist.piece(pieceIndex, tileCoordinate);
+        if(pieceIndex % BoardUtils.NUM_PIECE_TYPES == PAWN_TYPE){
+            this.pawnKey ^= Zobrist.piece(pieceIndex, tileCoordinate);
+        }
+        this.middlegameScore += PieceSquareTables.middlegame(pieceIndex, tileCoordinate);
+        this.endgameScore += PieceSquareTables.endgame(pieceIndex, tileCoordinate);
+        this.phase += PieceSquareTables.phaseWeight(pieceIndex);
+        this.pieceOnTile[tileCoordinate] = pieceIndex;
+        this.pieceBitboards[pieceIndex] |= squareMask;
+        this.allianceOccupancy[pieceIndex / BoardUtils.NUM_PIECE_TYPES] |= squareMask;
+    }
+
+    private int removePiece(final int tileCoordinate) {
+        final long squareMask = 1L << tileCoordinate;
+        final int pieceIndex = this.pieceOnTile[tileCoordinate];
+        this.zobristKey ^= Zobrist.piece(pieceIndex, tileCoordinate);
+        if(pieceIndex % BoardUtils.NUM_PIECE_TYPES == PAWN_TYPE){
+            this.pawnKey ^= Zobrist.piece(pieceIndex, tileCoordinate);
+        }
+        this.middlegameScore -= PieceSquareTables.middlegame(pieceIndex, tileCoordinate);
+        this.endgameScore -= PieceSquareTables.endgame(pieceIndex, tileCoordinate);
+        this.phase -= PieceSquareTables.phaseWeight(pieceIndex);
+        this.pieceOnTile[tileCoordinate] = EMPTY;
+        this.pieceBitboards[pieceIndex] &= ~squareMask;
+        this.allianceOccupancy[pieceIndex / BoardUtils.NUM_PIECE_TYPES] &= ~squareMask;
+        return pieceIndex;
+    }
+
+    //The rook's tiles follow from where the king lands
+    private static int castleRookStart(final int kingDestination) {
+        return kingDestination % BoardUtils.NUM_TILES_PER_ROW == 6 ? kingDestination + 1 : kingDestination - 2;
+    }
+
+    private static int castleRookDestination(final int kingDestination) {
+        return kingDestination % BoardUtils.NUM_TILES_PER_ROW == 6 ? kingDestination - 1 : kingDestination + 1;
+    }
+}
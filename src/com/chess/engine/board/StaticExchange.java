@@ -0,0 +1,110 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+
+//Static exchange evaluation: the material outcome of all captures on one tile, each side taking
+//with its least valuable attacker and free to stop whenever going on would lose more.
+//Sliders hidden behind a piece that captures join in as it leaves the line.
+//Pins are ignored, as usual, it is an estimate made without playing any move.
+public class StaticExchange {
+
+    private static final int PAWN_VALUE = Piece.PieceType.PAWN.getPieceValue();
+    private static final int KNIGHT_VALUE = Piece.PieceType.KNIGHT.getPieceValue();
+    private static final int BISHOP_VALUE = Piece.PieceType.BISHOP.getPieceValue();
+    private static final int ROOK_VALUE = Piece.PieceType.ROOK.getPieceValue();
+    private static final int QUEEN_VALUE = Piece.PieceType.QUEEN.getPieceValue();
+
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+    private StaticExchange(){
+        throw new RuntimeException("Cannot instantiate");
+    }
+
+    //True if the move, followed by the best sequence of recaptures on its tile, gains at least
+    //the threshold for the side making it. Answering yes or no lets the exchange stop as soon as
+    //the outcome is settled, and needs no list of the gains along the way.
+    public static boolean isAtLeast(final MutableBoard board, final int move, final int threshold) {
+        //En passant trades pawn for pawn and castling captures nothing
+        if(MoveEncoding.kind(move) == MoveEncoding.EN_PASSANT || MoveEncoding.kind(move) == MoveEncoding.CASTLE){
+            return 0 >= threshold;
+        }
+        final int from = MoveEncoding.from(move);
+        final int to = MoveEncoding.to(move);
+
+        //What is won if the opponent does not recapture, then what is left if they do
+        int swap = (MoveEncoding.isCapture(move) ? pieceValue(MoveEncoding.capturedPiece(move)) : 0) - threshold;
+        if(swap < 0){
+            return false;
+        }
+        swap = pieceValue(MoveEncoding.movedPiece(move)) - swap;
+        if(swap <= 0){
+            return true;
+        }
+
+        final long[] pieceBitboards = board.getPieceBitboards();
+        final long diagonalSliders = bothSides(pieceBitboards, Piece.PieceType.BISHOP) | bothSides(pieceBitboards, Piece.PieceType.QUEEN);
+        final long straightSliders = bothSides(pieceBitboards, Piece.PieceType.ROOK) | bothSides(pieceBitboards, Piece.PieceType.QUEEN);
+        long occupancy = board.getOccupancy() ^ (1L << from) ^ (1L << to);
+        long attackers = BoardUtils.attackersOf(to, occupancy, pieceBitboards);
+        Alliance sideToCapture = board.getSideToMove();
+        //1 while the side that made the move is ahead at the threshold, 0 otherwise
+        int result = 1;
+
+        while(true){
+            sideToCapture = sideToCapture.getOpposite();
+            attackers &= occupancy;
+            final long sideAttackers = attackers & board.getOccupancy(sideToCapture);
+            if(sideAttackers == 0){
+                break;
+            }
+            result ^= 1;
+
+            long candidates;
+            if((candidates = sideAttackers & pieceBitboards[BoardUtils.pieceIndex(sideToCapture, Piece.PieceType.PAWN)]) != 0){
+                if((swap = PAWN_VALUE - swap) < result){
+                    break;
+                }
+                occupancy ^= Long.lowestOneBit(candidates);
+                attackers |= MagicBitboards.bishopAttacks(to, occupancy) & diagonalSliders;
+            } else if((candidates = sideAttackers & pieceBitboards[BoardUtils.pieceIndex(sideToCapture, Piece.PieceType.KNIGHT)]) != 0){
+                if((swap = KNIGHT_VALUE - swap) < result){
+                    break;
+                }
+                occupancy ^= Long.lowestOneBit(candidates);
+            } else if((candidates = sideAttackers & pieceBitboards[BoardUtils.pieceIndex(sideToCapture, Piece.PieceType.BISHOP)]) != 0){
+                if((swap = BISHOP_VALUE - swap) < result){
+                    break;
+                }
+                occupancy ^= Long.lowestOneBit(candidates);
+                attackers |= MagicBitboards.bishopAttacks(to, occupancy) & diagonalSliders;
+            } else if((candidates = sideAttackers & pieceBitboards[BoardUtils.pieceIndex(sideToCapture, Piece.PieceType.ROOK)]) != 0){
+                if((swap = ROOK_VALUE - swap) < result){
+                    break;
+                }
+                occupancy ^= Long.lowestOneBit(candidates);
+                attackers |= MagicBitboards.rookAttacks(to, occupancy) & straightSliders;
+            } else if((candidates = sideAttackers & pieceBitboards[BoardUtils.pieceIndex(sideToCapture, Piece.PieceType.QUEEN)]) != 0){
+                if((swap = QUEEN_VALUE - swap) < result){
+                    break;
+                }
+                occupancy ^= Long.lowestOneBit(candidates);
+                attackers |= (MagicBitboards.bishopAttacks(to, occupancy) & diagonalSliders)
+                        | (MagicBitboards.rookAttacks(to, occupancy) & straightSliders);
+            } else {
+                //The king can only take if nothing of the other side still attacks the tile
+                return ((attackers & ~board.getOccupancy(sideToCapture)) != 0 ? result ^ 1 : result) != 0;
+            }
+        }
+        return result != 0;
+    }
+
+    private static int pieceValue(final int pieceIndex) {
+        return PIECE_TYPES[pieceIndex % BoardUtils.NUM_PIECE_TYPES].getPieceValue();
+    }
+
+    private static long bothSides(final long[] pieceBitboards, final Piece.PieceType pieceType) {
+        return pieceBitboards[BoardUtils.pieceIndex(Alliance.WHITE, pieceType)]
+                | pieceBitboards[BoardUtils.pieceIndex(Alliance.BLACK, pieceType)];
+    }
+}
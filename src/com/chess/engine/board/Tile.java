@@ -35,7 +35,7 @@ public abstract class Tile {
 
 
     public static Tile createTile(final int tileCoordinate, final Piece piece){
-        return piece != null?new OccupiedTile(tileCoordinate, piece): new EmptyTile(tileCoordinate);
+        return piece != null?new OccupiedTile(tileCoordinate, piece): EMPTY_TILES_CACHE.get(tileCoordinate);
     }
 
     //Final class so it cant be extended
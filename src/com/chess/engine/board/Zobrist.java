@@ -0,0 +1,75 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+
+import java.util.Random;
+
+//Random 64 bit keys for every feature of a position. The hash of a position is the XOR of the
+//keys of the features it has, so a move only has to XOR out what it removes and XOR in what it adds.
+public class Zobrist {
+
+    //Fixed seed so the same position gets the same hash on every run
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private static final long[][] PIECE_KEYS = new long[BoardUtils.NUM_PIECE_INDEXES][BoardUtils.NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    //Mixed in when black is to move
+    private static final long SIDE_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for(final long[] pieceKeys : PIECE_KEYS){
+            for(int i = 0; i < pieceKeys.length; i++){
+                pieceKeys[i] = random.nextLong();
+            }
+        }
+        for(int i = 0; i < CASTLING_KEYS.length; i++){
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for(int i = 0; i < EN_PASSANT_KEYS.length; i++){
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    private Zobrist(){
+        throw new RuntimeException("Cannot instantiate");
+    }
+
+    public static long piece(final int pieceIndex, final int tileCoordinate) {
+        return PIECE_KEYS[pieceIndex][tileCoordinate];
+    }
+
+    public static long castling(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    //Only the column matters, the rank always follows from the side to move
+    public static long enPassant(final int tileCoordinate) {
+        return EN_PASSANT_KEYS[tileCoordinate % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    public static long sideToMove() {
+        return SIDE_KEY;
+    }
+
+    //Hash a whole position from scratch, en passant tile is -1 if there is none
+    public static long calculateKey(final long[] pieceBitboards, final Alliance sideToMove,
+                                    final int castlingRights, final int enPassantTile) {
+        long key = 0L;
+        for(int pieceIndex = 0; pieceIndex < pieceBitboards.length; pieceIndex++){
+            for(long pieces = pieceBitboards[pieceIndex]; pieces != 0; pieces &= pieces - 1){
+                key ^= PIECE_KEYS[pieceIndex][Long.numberOfTrailingZeros(pieces)];
+            }
+        }
+        if(sideToMove.isBlack()){
+            key ^= SIDE_KEY;
+        }
+        key ^= CASTLING_KEYS[castlingRights];
+        if(enPassantTile >= 0){
+            key ^= enPassant(enPassantTile);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,164 @@
+package com.chess.engine.book;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+//Polyglot opening book read straight from a memory mapped .bin file. Entries are 16 big-endian
+//bytes (key, move, weight, learn) sorted by key, so a position is found by binary search and
+//the book never has to be copied onto the heap. The mapping is read only, the pages are shared
+//with every other process that maps the same book.
+public class PolyglotBook implements Closeable {
+
+    private static final int ENTRY_SIZE = 16;
+    private static final int MOVE_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 10;
+    //A single mapping is limited to 2GB, larger books are mapped in chunks of whole entries
+    private static final long ENTRIES_PER_CHUNK = Integer.MAX_VALUE / ENTRY_SIZE;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long entryCount;
+
+    public PolyglotBook(final Path bookFile) throws IOException {
+        this.channel = FileChannel.open(bookFile, StandardOpenOption.READ);
+        this.entryCount = this.channel.size() / ENTRY_SIZE;
+        this.chunks = new MappedByteBuffer[(int) ((this.entryCount + ENTRIES_PER_CHUNK - 1) / ENTRIES_PER_CHUNK)];
+        for(int i = 0; i < this.chunks.length; i++){
+            final long firstEntry = i * ENTRIES_PER_CHUNK;
+            final long entries = Math.min(ENTRIES_PER_CHUNK, this.entryCount - firstEntry);
+            this.chunks[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, firstEntry * ENTRY_SIZE, entries * ENTRY_SIZE);
+        }
+    }
+
+    public long size() {
+        return this.entryCount;
+    }
+
+    //Book moves for the position, heaviest first. Entries that are not legal on the board are skipped
+    public List<BookEntry> getEntries(final Board board) {
+        final long key = PolyglotKey.calculateKey(board);
+        final List<BookEntry> entries = new ArrayList<>();
+        for(long index = firstIndexOf(key); index < this.entryCount && readKey(index) == key; index++){
+            final Move move = decodeMove(board, readShort(index, MOVE_OFFSET));
+            if(move != Move.NULL_MOVE){
+                entries.add(new BookEntry(move, readShort(index, WEIGHT_OFFSET)));
+            }
+        }
+        entries.sort(Collections.reverseOrder());
+        return entries;
+    }
+
+    //Picks a book move with probability proportional to its weight, Move.NULL_MOVE when out of book
+    public Move selectMove(final Board board, final Random random) {
+        final List<BookEntry> entries = getEntries(board);
+        int totalWeight = 0;
+        for(final BookEntry entry : entries){
+            totalWeight += entry.getWeight();
+        }
+        if(totalWeight == 0){
+            return entries.isEmpty() ? Move.NULL_MOVE : entries.get(0).getMove();
+        }
+        int choice = random.nextInt(totalWeight);
+        for(final BookEntry entry : entries){
+            choice -= entry.getWeight();
+            if(choice < 0){
+                return entry.getMove();
+            }
+        }
+        return entries.get(0).getMove();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    //Lower bound: the first entry whose key is not below the wanted key, keys compare unsigned
+    private long firstIndexOf(final long key) {
+        long low = 0;
+        long high = this.entryCount;
+        while(low < high){
+            final long middle = (low + high) >>> 1;
+            if(Long.compareUnsigned(readKey(middle), key) < 0){
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    //Absolute reads leave the buffer position alone, so lookups from several threads are safe
+    private long readKey(final long index) {
+        return this.chunks[(int) (index / ENTRIES_PER_CHUNK)].getLong((int) (index % ENTRIES_PER_CHUNK) * ENTRY_SIZE);
+    }
+
+    private int readShort(final long index, final int offset) {
+        return this.chunks[(int) (index / ENTRIES_PER_CHUNK)].getShort((int) (index % ENTRIES_PER_CHUNK) * ENTRY_SIZE + offset) & 0xFFFF;
+    }
+
+    //Polyglot moves: to file in bits 0-2, to row 3-5, from file 6-8, from row 9-11, promotion 12-14.
+    //Castling is written as the king taking its own rook
+    private static Move decodeMove(final Board board, final int polyglotMove) {
+        final int currentCoordinate = PolyglotKey.polyglotSquare((polyglotMove >>> 6) & 63);
+        int destinationCoordinate = PolyglotKey.polyglotSquare(polyglotMove & 63);
+        if((polyglotMove >>> 12) != 0){
+            //Promotions are not played by this engine
+            return Move.NULL_MOVE;
+        }
+        final Piece movedPiece = board.getPiece(currentCoordinate);
+        if(movedPiece == null || movedPiece.getPieceAlliance() != board.currentPlayer().getAlliance()){
+            return Move.NULL_MOVE;
+        }
+        final Piece targetPiece = board.getPiece(destinationCoordinate);
+        if(movedPiece.getPieceType() == Piece.PieceType.KING && targetPiece != null
+                && targetPiece.getPieceType() == Piece.PieceType.ROOK
+                && targetPiece.getPieceAlliance() == movedPiece.getPieceAlliance()){
+            destinationCoordinate = destinationCoordinate > currentCoordinate ? currentCoordinate + 2 : currentCoordinate - 2;
+        }
+        return Move.MoveFactory.createMove(board, currentCoordinate, destinationCoordinate);
+    }
+
+    public static class BookEntry implements Comparable<BookEntry> {
+
+        private final Move move;
+        private final int weight;
+
+        BookEntry(final Move move, final int weight) {
+            this.move = move;
+            this.weight = weight;
+        }
+
+        public Move getMove() {
+            return this.move;
+        }
+
+        public int getWeight() {
+            return this.weight;
+        }
+
+        @Override
+        public int compareTo(final BookEntry other) {
+            return Integer.compare(this.weight, other.weight);
+        }
+
+        @Override
+        public String toString() {
+            return BoardUtils.getPositionAtCoordinate(this.move.getCurrentCoordinate())
+                    + BoardUtils.getPositionAtCoordinate(this.move.getDestinationCoordinate()) + " " + this.weight;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.chess.engine.endgame;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MagicBitboards;
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//Offline retrograde analysis of the Endgame bitbases.
+//The lone king can never win, so one bit per position is enough: set when the strong side wins.
+//Every pass looks at each position not yet known to be won. With the strong side to move it is
+//won if some move reaches a won position; with the weak side to move it is won if it is mate, or
+//if every king move reaches a won position and none takes a piece. Passes repeat until one adds
+//nothing, the positions left over are draws or illegal. Passes are split over a fork-join pool in
+//ranges of whole words, so each word of the bitbase is written by one task only.
+public final class BitbaseGenerator {
+
+    //Positions a task works through before it stops splitting, as words of 64 positions
+    private static final int WORDS_PER_TASK = 1 << 10;
+
+    private static final long FIRST_RANK = 0xFF00000000000000L;
+    private static final long SECOND_RANK = 0x00FF000000000000L;
+    private static final long EIGHTH_RANK = 0x00000000000000FFL;
+
+    private final Endgame endgame;
+    private final Piece.PieceType[] pieceTypes;
+    private final long[] wins;
+    //Promotions of KPK look the result up in the queen and rook bitbases. The move generator does not
+    //promote yet, so EndgameBitbases leaves KPK unprobed until it does
+    private final long[] queenWins;
+    private final long[] rookWins;
+
+    private BitbaseGenerator(final Endgame endgame, final long[] queenWins, final long[] rookWins) {
+        this.endgame = endgame;
+        this.pieceTypes = endgame.getPieceTypes();
+        this.wins = new long[(int) (endgame.size() >>> 6)];
+        this.queenWins = queenWins;
+        this.rookWins = rookWins;
+    }
+
+    //Bits of the bitbase, KPK needs KQK and KRK generated first
+    public static long[] generate(final Endgame endgame, final Map<Endgame, long[]> generated, final ForkJoinPool pool) {
+        final long[] queenWins = generated.get(Endgame.KQK);
+        final long[] rookWins = generated.get(Endgame.KRK);
+        if(endgame == Endgame.KPK && (queenWins == null || rookWins == null)){
+            throw new IllegalStateException("KPK promotes into KQK and KRK, generate them first");
+        }
+        final BitbaseGenerator generator = new BitbaseGenerator(endgame, queenWins, rookWins);
+        while(pool.invoke(generator.new PassTask(0, generator.wins.length)) > 0){
+            //Repeat until a pass finds no new win
+        }
+        return generator.wins;
+    }
+
+    //Bit i of the file is bit i % 8 of byte i / 8, which is what the prober reads
+    public static void write(final long[] wins, final Path file) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(wins.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for(final long word : wins){
+            buffer.putLong(word);
+        }
+        buffer.flip();
+        try(final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static boolean isSet(final long[] bits, final long index) {
+        return (bits[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    private boolean isWin(final long index) {
+        final int pieceCount = this.pieceTypes.length;
+        final int pieceBits = 6 * pieceCount;
+        final boolean weakToMove = ((index >>> (pieceBits + 12)) & 1) != 0;
+        final int strongKing = (int) (index >>> (pieceBits + 6)) & 63;
+        final int weakKing = (int) (index >>> pieceBits) & 63;
+        final int firstPiece = (int) (index >>> (pieceBits - 6)) & 63;
+        final int secondPiece = pieceCount > 1 ? (int) index & 63 : firstPiece;
+
+        final long weakKingMask = 1L << weakKing;
+        final long pieceOccupancy = (1L << firstPiece) | (1L << secondPiece);
+        final long occupancy = (1L << strongKing) | weakKingMask | pieceOccupancy;
+        if(Long.bitCount(occupancy) != 2 + pieceCount
+                || (BoardUtils.KING_ATTACKS[strongKing] & weakKingMask) != 0){
+            return false;
+        }
+        if(this.pieceTypes[0] == Piece.PieceType.PAWN && ((1L << firstPiece) & (FIRST_RANK | EIGHTH_RANK)) != 0){
+            return false;
+        }
+        final boolean weakInCheck = ((attacks(0, firstPiece, occupancy) | attacks(1, secondPiece, occupancy)) & weakKingMask) != 0;
+        if(weakToMove){
+            return isWeakKingLost(strongKing, weakKing, firstPiece, secondPiece, occupancy, weakInCheck);
+        }
+        return !weakInCheck && hasWinningMove(strongKing, weakKing, firstPiece, secondPiece, occupancy);
+    }
+
+    private boolean hasWinningMove(final int strongKing, final int weakKing, final int firstPiece,
+                                   final int secondPiece, final long occupancy) {
+        for(long targets = BoardUtils.KING_ATTACKS[strongKing] & ~occupancy & ~BoardUtils.KING_ATTACKS[weakKing];
+            targets != 0; targets &= targets - 1){
+            final int target = Long.numberOfTrailingZeros(targets);
+            if(isSet(this.wins, this.endgame.index(true, target, weakKing, firstPiece, secondPiece))){
+                return true;
+            }
+        }
+
+        if(this.pieceTypes[0] == Piece.PieceType.PAWN){
+            //White pawns move towards tile 0
+            final int push = firstPiece - 8;
+            if((occupancy & (1L << push)) != 0){
+                return false;
+            }
+            if(((1L << push) & EIGHTH_RANK) != 0){
+                final long promotedIndex = Endgame.KQK.index(true, strongKing, weakKing, push, push);
+                return isSet(this.queenWins, promotedIndex) || isSet(this.rookWins, promotedIndex);
+            }
+            if(isSet(this.wins, this.endgame.index(true, strongKing, weakKing, push, secondPiece))){
+                return true;
+            }
+            final int jump = firstPiece - 16;
+            return ((1L << firstPiece) & SECOND_RANK) != 0 && (occupancy & (1L << jump)) == 0
+                    && isSet(this.wins, this.endgame.index(true, strongKing, weakKing, jump, secondPiece));
+        }
+
+        for(long targets = attacks(0, firstPiece, occupancy) & ~occupancy; targets != 0; targets &= targets - 1){
+            final int target = Long.numberOfTrailingZeros(targets);
+            if(isSet(this.wins, this.endgame.index(true, strongKing, weakKing, target, secondPiece))){
+                return true;
+            }
+        }
+        if(this.pieceTypes.length > 1){
+            for(long targets = attacks(1, secondPiece, occupancy) & ~occupancy; targets != 0; targets &= targets - 1){
+                final int target = Long.numberOfTrailingZeros(targets);
+                if(isSet(this.wins, this.endgame.index(true, strongKing, weakKing, firstPiece, target))){
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    //Lost if mated, or if every legal king move lands in a won position without taking a piece
+    private boolean isWeakKingLost(final int strongKing, final int weakKing, final int firstPiece,
+                                   final int secondPiece, final long occupancy, final boolean inCheck) {
+        //Sliders see through the square the king leaves
+        final long occupancyWithoutKing = occupancy & ~(1L << weakKing);
+        boolean hasMove = false;
+        for(long targets = BoardUtils.KING_ATTACKS[weakKing] & ~BoardUtils.KING_ATTACKS[strongKing];
+            targets != 0; targets &= targets - 1){
+            final int target = Long.numberOfTrailingZeros(targets);
+            final long targetMask = 1L << target;
+            long attacked = 0L;
+            if(target != firstPiece){
+                attacked |= attacks(0, firstPiece, occupancyWithoutKing);
+            }
+            if(target != secondPiece && this.pieceTypes.length > 1){
+                attacked |= attacks(1, secondPiece, occupancyWithoutKing);
+            }
+            if((attacked & targetMask) != 0){
+                continue;
+            }
+            //Taking a piece leaves too little to win with
+            if(target == firstPiece || target == secondPiece){
+                return false;
+            }
+            if(!isSet(this.wins, this.endgame.index(false, strongKing, target, firstPiece, secondPiece))){
+                return false;
+            }
+            hasMove = true;
+        }
+        return hasMove || inCheck;
+    }
+
+    //Tiles attacked by the strong side's piece with the given number
+    private long attacks(final int piece, final int tileCoordinate, final long occupancy) {
+        if(piece >= this.pieceTypes.length){
+            return 0L;
+        }
+        switch(this.pieceTypes[piece]){
+            case PAWN:
+                return BoardUtils.PAWN_ATTACKS[Alliance.WHITE.ordinal()][tileCoordinate];
+            case KNIGHT:
+                return BoardUtils.KNIGHT_ATTACKS[tileCoordinate];
+            case BISHOP:
+                return MagicBitboards.bishopAttacks(tileCoordinate, occupancy);
+            case ROOK:
+                return MagicBitboards.rookAttacks(tileCoordinate, occupancy);
+            case QUEEN:
+                return MagicBitboards.queenAttacks(tileCoordinate, occupancy);
+            default:
+                return 0L;
+        }
+    }
+
+    //One pass over a range of words, counts the wins it adds
+    private final class PassTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int fromWord;
+        private final int toWord;
+
+        PassTask(final int fromWord, final int toWord) {
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected Long compute() {
+            if(this.toWord - this.fromWord > WORDS_PER_TASK){
+                final int middle = (this.fromWord + this.toWord) >>> 1;
+                final PassTask lowerHalf = new PassTask(this.fromWord, middle);
+                lowerHalf.fork();
+                final long upperWins = new PassTask(middle, this.toWord).compute();
+                return lowerHalf.join() + upperWins;
+            }
+            long newWins = 0;
+            for(int word = this.fromWord; word < this.toWord; word++){
+                long bits = wins[word];
+                for(long open = ~bits; open != 0; open &= open - 1){
+                    final int bit = Long.numberOfTrailingZeros(open);
+                    if(isWin(((long) word << 6) | bit)){
+                        bits |= 1L << bit;
+                        newWins++;
+                    }
+                }
+                wins[word] = bits;
+            }
+            return newWins;
+        }
+    }
+
+    //Usage: BitbaseGenerator <directory> [-threads n]
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1){
+            System.out.println("Usage: BitbaseGenerator <directory> [-threads n]");
+            return;
+        }
+        final Path directory = Paths.get(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        for(int i = 1; i < args.length; i++){
+            if(args[i].equals("-threads") && i + 1 < args.length){
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        Files.createDirectories(directory);
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        final Map<Endgame, long[]> generated = new EnumMap<>(Endgame.class);
+        //The queen and rook bitbases come first, KPK promotes into them
+        for(final Endgame endgame : new Endgame[]{Endgame.KQK, Endgame.KRK, Endgame.KPK, Endgame.KBNK}){
+            final long start = System.nanoTime();
+            final long[] wins = generate(endgame, generated, pool);
+            generated.put(endgame, wins);
+            write(wins, directory.resolve(endgame.getFileName()));
+            long winCount = 0;
+            for(final long word : wins){
+                winCount += Long.bitCount(word);
+            }
+            System.out.println(endgame + ": " + winCount + " wins in " + (System.nanoTime() - start) / 1_000_000L + " ms");
+        }
+        pool.shutdown();
+    }
+}
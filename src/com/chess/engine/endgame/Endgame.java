@@ -0,0 +1,74 @@
+package com.chess.engine.endgame;
+
+import com.chess.engine.pieces.Piece;
+
+//Endings with a bitbase: a lone king against a king and one or two pieces.
+//Positions are always seen from the strong side playing up the board, as white would. A position
+//is indexed by side to move, strong king, weak king and the strong side's pieces in the order
+//given here, six bits per tile, so the bitbase holds one bit for every arrangement of the pieces.
+public enum Endgame {
+
+    KPK(Piece.PieceType.PAWN),
+    KRK(Piece.PieceType.ROOK),
+    KQK(Piece.PieceType.QUEEN),
+    KBNK(Piece.PieceType.BISHOP, Piece.PieceType.KNIGHT);
+
+    private final Piece.PieceType[] pieceTypes;
+    private final int materialSignature;
+
+    Endgame(final Piece.PieceType... pieceTypes) {
+        this.pieceTypes = pieceTypes;
+        int materialSignature = 0;
+        for(final Piece.PieceType pieceType : pieceTypes){
+            materialSignature += signatureOf(pieceType);
+        }
+        this.materialSignature = materialSignature;
+    }
+
+    //Strong side pieces besides the king
+    public Piece.PieceType[] getPieceTypes() {
+        return this.pieceTypes.clone();
+    }
+
+    Piece.PieceType pieceType(final int piece) {
+        return this.pieceTypes[piece];
+    }
+
+    public int getPieceCount() {
+        return this.pieceTypes.length;
+    }
+
+    //Two kings plus the pieces, each on any tile, times two sides to move
+    public long size() {
+        return 2L << (6 * (2 + this.pieceTypes.length));
+    }
+
+    public String getFileName() {
+        return name().toLowerCase() + ".bb";
+    }
+
+    //Material of one side as four bits per piece type, kings left out
+    static int signatureOf(final Piece.PieceType pieceType) {
+        return 1 << (4 * pieceType.ordinal());
+    }
+
+    //The ending whose strong side has this material, null if there is none
+    static Endgame forSignature(final int materialSignature) {
+        for(final Endgame endgame : values()){
+            if(endgame.materialSignature == materialSignature){
+                return endgame;
+            }
+        }
+        return null;
+    }
+
+    //Index bits, high to low: weak side to move, strong king, weak king, pieces
+    long index(final boolean weakToMove, final int strongKing, final int weakKing, final int firstPiece, final int secondPiece) {
+        long index = ((weakToMove ? 1L : 0L) << 12) | (strongKing << 6) | weakKing;
+        index = (index << 6) | firstPiece;
+        if(this.pieceTypes.length > 1){
+            index = (index << 6) | secondPiece;
+        }
+        return index;
+    }
+}
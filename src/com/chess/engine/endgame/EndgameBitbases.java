@@ -0,0 +1,156 @@
+package com.chess.engine.endgame;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+//Win, draw or loss of endgame positions, read from the bitbases BitbaseGenerator writes.
+//The files are memory mapped read only, so they cost no heap, load lazily page by page and are
+//shared by every searcher and process probing them. Endings whose file is missing are unknown.
+public class EndgameBitbases {
+
+    //Probe results, from the view of the side to move
+    public static final int LOSS = -1;
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+    public static final int UNKNOWN = 2;
+
+    //Most pieces, kings included, of any ending with a bitbase
+    public static final int MAX_PIECES = 4;
+
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+    //Tiles a white pawn can never stand on, this engine leaves pawns on the last rank unpromoted
+    private static final long PAWN_EXCLUDED_TILES = 0xFF000000000000FFL;
+
+    private final Map<Endgame, MappedByteBuffer> bitbases;
+
+    private EndgameBitbases(final Map<Endgame, MappedByteBuffer> bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    //Maps every bitbase file found in the directory that the engine can play out
+    public static EndgameBitbases open(final Path directory) throws IOException {
+        final Map<Endgame, MappedByteBuffer> bitbases = new EnumMap<>(Endgame.class);
+        for(final Endgame endgame : Endgame.values()){
+            final Path file = directory.resolve(endgame.getFileName());
+            if(!isPlayable(endgame) || !Files.exists(file)){
+                continue;
+            }
+            //The mapping stays valid once the channel is closed
+            try(final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+                if(channel.size() != endgame.size() / 8){
+                    throw new IOException(file + " should be " + endgame.size() / 8 + " bytes, it is " + channel.size());
+                }
+                bitbases.put(endgame, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+        return new EndgameBitbases(bitbases);
+    }
+
+    //KPK is won by promoting, and the move generator makes no promotions yet. The search would score
+    //wins it can never play, so KPK stays unknown until promotions exist even when its file is there
+    private static boolean isPlayable(final Endgame endgame) {
+        return endgame != Endgame.KPK;
+    }
+
+    public boolean isAvailable(final Endgame endgame) {
+        return this.bitbases.containsKey(endgame);
+    }
+
+    //Looks the position up from the piece lists of the board
+    public int probe(final Board board) {
+        final Collection<Piece> whitePieces = board.getWhitePieces();
+        final Collection<Piece> blackPieces = board.getBlackPieces();
+        if(whitePieces.size() + blackPieces.size() > MAX_PIECES || board.getCastlingRights() != 0){
+            return UNKNOWN;
+        }
+        final Alliance strongSide = whitePieces.size() >= blackPieces.size() ? Alliance.WHITE : Alliance.BLACK;
+        final Collection<Piece> strongPieces = strongSide.isWhite() ? whitePieces : blackPieces;
+        final Collection<Piece> weakPieces = strongSide.isWhite() ? blackPieces : whitePieces;
+        if(weakPieces.size() != 1){
+            return UNKNOWN;
+        }
+
+        int materialSignature = 0;
+        int strongKing = 0;
+        final int[] pieceTiles = new int[Piece.PieceType.values().length];
+        for(final Piece piece : strongPieces){
+            if(piece.getPieceType() == Piece.PieceType.KING){
+                strongKing = piece.getPiecePosition();
+            } else {
+                materialSignature += Endgame.signatureOf(piece.getPieceType());
+                pieceTiles[piece.getPieceType().ordinal()] = piece.getPiecePosition();
+            }
+        }
+        final Endgame endgame = Endgame.forSignature(materialSignature);
+        if(endgame == null){
+            return UNKNOWN;
+        }
+        final int firstPiece = pieceTiles[endgame.pieceType(0).ordinal()];
+        final int secondPiece = pieceTiles[endgame.pieceType(endgame.getPieceCount() - 1).ordinal()];
+        final int weakKing = weakPieces.iterator().next().getPiecePosition();
+        return probe(endgame, strongSide, board.currentPlayer().getAlliance(), strongKing, weakKing, firstPiece, secondPiece);
+    }
+
+    //Same lookup from the bitboards, without allocating, for use inside the search
+    public int probe(final MutableBoard board) {
+        if(Long.bitCount(board.getOccupancy()) > MAX_PIECES || board.getCastlingRights() != 0){
+            return UNKNOWN;
+        }
+        final Alliance strongSide = Long.bitCount(board.getOccupancy(Alliance.WHITE)) >= Long.bitCount(board.getOccupancy(Alliance.BLACK)) ?
+                Alliance.WHITE : Alliance.BLACK;
+        final Alliance weakSide = strongSide.getOpposite();
+        if(Long.bitCount(board.getOccupancy(weakSide)) != 1){
+            return UNKNOWN;
+        }
+
+        int materialSignature = 0;
+        for(final Piece.PieceType pieceType : PIECE_TYPES){
+            if(pieceType != Piece.PieceType.KING){
+                materialSignature += Long.bitCount(board.getPieces(strongSide, pieceType)) * Endgame.signatureOf(pieceType);
+            }
+        }
+        final Endgame endgame = Endgame.forSignature(materialSignature);
+        if(endgame == null){
+            return UNKNOWN;
+        }
+        final int firstPiece = Long.numberOfTrailingZeros(board.getPieces(strongSide, endgame.pieceType(0)));
+        final int secondPiece = Long.numberOfTrailingZeros(board.getPieces(strongSide, endgame.pieceType(endgame.getPieceCount() - 1)));
+        return probe(endgame, strongSide, board.getSideToMove(),
+                Long.numberOfTrailingZeros(board.getPieces(strongSide, Piece.PieceType.KING)),
+                Long.numberOfTrailingZeros(board.getPieces(weakSide, Piece.PieceType.KING)), firstPiece, secondPiece);
+    }
+
+    //Bitbases see the strong side as white, a black strong side is mirrored top to bottom.
+    //Illegal positions read as draws
+    private int probe(final Endgame endgame, final Alliance strongSide, final Alliance sideToMove,
+                      final int strongKing, final int weakKing, final int firstPiece, final int secondPiece) {
+        final MappedByteBuffer bitbase = this.bitbases.get(endgame);
+        if(bitbase == null){
+            return UNKNOWN;
+        }
+        final int flip = strongSide.isWhite() ? 0 : 56;
+        if(endgame.pieceType(0) == Piece.PieceType.PAWN && ((1L << (firstPiece ^ flip)) & PAWN_EXCLUDED_TILES) != 0){
+            return UNKNOWN;
+        }
+        final boolean weakToMove = sideToMove != strongSide;
+        final long index = endgame.index(weakToMove, strongKing ^ flip, weakKing ^ flip, firstPiece ^ flip, secondPiece ^ flip);
+        //Absolute reads, safe from any number of threads
+        final boolean strongWins = (bitbase.get((int) (index >>> 3)) & (1 << (index & 7))) != 0;
+        if(!strongWins){
+            return DRAW;
+        }
+        return weakToMove ? LOSS : WIN;
+    }
+}
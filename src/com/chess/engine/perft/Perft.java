@@ -0,0 +1,228 @@
+package com.chess.engine.perft;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Fen;
+import com.chess.engine.board.LegalMoveGenerator;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.MoveListStack;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//Counts the leaf nodes of the legal move tree below a position.
+//Comparing the counts with published numbers checks move generation, and the nodes per
+//second it reaches tracks how fast move generation is.
+//The tree is walked on a MutableBoard with encoded moves and one move buffer per ply, so
+//counting allocates nothing once it has started. The slower walk through Player.makeMove on
+//immutable boards is kept beside it, to check the two move generators against each other.
+public class Perft {
+
+    private Perft(){
+        throw new RuntimeException("Cannot instantiate");
+    }
+
+    //Number of legal move sequences of exactly this depth
+    public static long perft(final Board board, final int depth) {
+        return perft(new MutableBoard(board), depth, new MoveListStack(Math.max(depth, 1)));
+    }
+
+    //The board is left as it was found, the stack needs at least depth plies
+    public static long perft(final MutableBoard board, final int depth, final MoveListStack moveLists) {
+        if(depth == 0){
+            return 1L;
+        }
+        final MoveList moves = moveLists.get(depth - 1);
+        LegalMoveGenerator.generateLegalMoves(board, moves);
+        //Every generated move is legal, so the last ply only needs counting
+        if(depth == 1){
+            return moves.size();
+        }
+        long nodes = 0L;
+        for(int i = 0; i < moves.size(); i++){
+            board.makeMove(moves.get(i));
+            nodes += perft(board, depth - 1, moveLists);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    //Same count through getLegalMoves and Player.makeMove, the way the GUI plays moves
+    public static long perftBoard(final Board board, final int depth) {
+        if(depth == 0){
+            return 1L;
+        }
+        long nodes = 0L;
+        for(final Move move : board.currentPlayer().getLegalMoves()){
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if(transition.getMoveStatus().isDone()){
+                nodes += perftBoard(transition.getTransitionBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    public static Map<Move, Long> divide(final Board board, final int depth, final ForkJoinPool pool) {
+        return divide(board, depth, pool, false);
+    }
+
+    //Node count below every legal root move, the root moves are counted in parallel on the pool.
+    //With objectModel the moves are generated and made through the Player instead of the MutableBoard
+    public static Map<Move, Long> divide(final Board board, final int depth, final ForkJoinPool pool, final boolean objectModel) {
+        if(depth < 1){
+            throw new IllegalArgumentException("Divide needs a depth of at least 1: " + depth);
+        }
+        final List<RootMoveTask> tasks = new ArrayList<>();
+        if(objectModel){
+            for(final Move move : board.currentPlayer().getLegalMoves()){
+                if(board.currentPlayer().makeMove(move).getMoveStatus().isDone()){
+                    tasks.add(new RootMoveTask(board, move, depth - 1, true));
+                }
+            }
+        } else {
+            final MoveList rootMoves = new MoveList();
+            LegalMoveGenerator.generateLegalMoves(board, board.currentPlayer().getAlliance(), rootMoves);
+            for(int i = 0; i < rootMoves.size(); i++){
+                tasks.add(new RootMoveTask(board, MoveEncoding.toMove(board, rootMoves.get(i)), depth - 1, false));
+            }
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        final Map<Move, Long> nodesPerMove = new LinkedHashMap<>();
+        for(final RootMoveTask task : tasks){
+            nodesPerMove.put(task.rootMove, task.join());
+        }
+        return nodesPerMove;
+    }
+
+    //Usage: Perft <depth> [-divide] [-threads n] [-fen "<fen>"] [-board | -compare]
+    //-board counts through Player.makeMove, -compare counts both ways and lists the root moves that differ
+    public static void main(String[] args) {
+        if(args.length < 1){
+            System.out.println("Usage: Perft <depth> [-divide] [-threads n] [-fen \"<fen>\"] [-board | -compare]");
+            return;
+        }
+        final int depth = Integer.parseInt(args[0]);
+        boolean printDivide = false;
+        boolean objectModel = false;
+        boolean compare = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String fen = Fen.STANDARD_POSITION;
+        for(int i = 1; i < args.length; i++){
+            if(args[i].equals("-divide")){
+                printDivide = true;
+            } else if(args[i].equals("-board")){
+                objectModel = true;
+            } else if(args[i].equals("-compare")){
+                compare = true;
+            } else if(args[i].equals("-threads") && i + 1 < args.length){
+                threads = Integer.parseInt(args[++i]);
+            } else if(args[i].equals("-fen") && i + 1 < args.length){
+                fen = args[++i];
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        final Board board = Fen.parse(fen);
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        if(compare){
+            final boolean same = compare(board, depth, pool);
+            pool.shutdown();
+            System.out.println(same ? "Both move generators agree" : "Move generators disagree");
+            return;
+        }
+        final long start = System.nanoTime();
+        final Map<Move, Long> nodesPerMove = divide(board, depth, pool, objectModel);
+        final long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        long nodes = 0L;
+        for(final Map.Entry<Move, Long> entry : nodesPerMove.entrySet()){
+            if(printDivide){
+                System.out.println(moveName(entry.getKey()) + ": " + entry.getValue());
+            }
+            nodes += entry.getValue();
+        }
+        final long elapsedMillis = Math.max(1L, elapsed / 1_000_000L);
+        System.out.println("Depth: " + depth + "  Threads: " + threads);
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + elapsedMillis + " ms");
+        System.out.println("NPS: " + nodes * 1000L / elapsedMillis);
+    }
+
+    //Prints every root move whose counts differ, or that only one of the two paths generates
+    private static boolean compare(final Board board, final int depth, final ForkJoinPool pool) {
+        final Map<String, Long> fastCounts = countsByName(divide(board, depth, pool, false));
+        final Map<String, Long> boardCounts = countsByName(divide(board, depth, pool, true));
+        boolean same = true;
+        for(final Map.Entry<String, Long> entry : fastCounts.entrySet()){
+            final Long boardCount = boardCounts.remove(entry.getKey());
+            if(!entry.getValue().equals(boardCount)){
+                System.out.println(entry.getKey() + ": " + entry.getValue() + " fast, " + boardCount + " board");
+                same = false;
+            }
+        }
+        for(final Map.Entry<String, Long> entry : boardCounts.entrySet()){
+            System.out.println(entry.getKey() + ": null fast, " + entry.getValue() + " board");
+            same = false;
+        }
+        return same;
+    }
+
+    private static Map<String, Long> countsByName(final Map<Move, Long> nodesPerMove) {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        for(final Map.Entry<Move, Long> entry : nodesPerMove.entrySet()){
+            counts.put(moveName(entry.getKey()), entry.getValue());
+        }
+        return counts;
+    }
+
+    //Tiles the move goes from and to, such as e2e4
+    private static String moveName(final Move move) {
+        return BoardUtils.getPositionAtCoordinate(move.getCurrentCoordinate()) +
+                BoardUtils.getPositionAtCoordinate(move.getDestinationCoordinate());
+    }
+
+    private static final class RootMoveTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board rootBoard;
+        private final Move rootMove;
+        private final int depth;
+        private final boolean objectModel;
+
+        RootMoveTask(final Board rootBoard, final Move rootMove, final int depth, final boolean objectModel) {
+            this.rootBoard = rootBoard;
+            this.rootMove = rootMove;
+            this.depth = depth;
+            this.objectModel = objectModel;
+        }
+
+        //Each task walks its subtree on its own board and buffers
+        @Override
+        protected Long compute() {
+            if(this.objectModel){
+                return perftBoard(this.rootBoard.currentPlayer().makeMove(this.rootMove).getTransitionBoard(), this.depth);
+            }
+            final MutableBoard board = new MutableBoard(this.rootBoard);
+            board.makeMove(this.rootMove);
+            return perft(board, this.depth, new MoveListStack(Math.max(this.depth, 1)));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.chess.engine.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Fen;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+//One game of a PGN file: its tags, the moves of the main line as written, and the result.
+//Variations, comments and annotation glyphs are left out. Moves stay SAN text until the game is
+//replayed, so games can be read far faster than they are checked.
+public class PgnGame {
+
+    private final Map<String, String> tags;
+    private final List<String> moves;
+    private final String result;
+    //Line of the file the game starts on
+    private final long line;
+
+    PgnGame(final Map<String, String> tags, final List<String> moves, final String result, final long line) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.moves = Collections.unmodifiableList(moves);
+        this.result = result;
+        this.line = line;
+    }
+
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    //Value of a tag such as White or Event, null if the game does not have it
+    public String getTag(final String name) {
+        return this.tags.get(name);
+    }
+
+    public List<String> getMoves() {
+        return this.moves;
+    }
+
+    //1-0, 0-1, 1/2-1/2 or * for a game that is unfinished or whose result is unknown
+    public String getResult() {
+        return this.result;
+    }
+
+    public long getLine() {
+        return this.line;
+    }
+
+    //The position in the FEN tag if the game has one, otherwise the standard position
+    public Board getStartingBoard() {
+        final String fen = this.tags.get("FEN");
+        return fen == null ? Board.createStandardBoard() : Fen.parse(fen);
+    }
+
+    //Plays every move and returns the final position. Throws IllegalArgumentException naming the
+    //first move that cannot be played
+    public Board replay(final SanResolver sanResolver) {
+        Board board = getStartingBoard();
+        for(int i = 0; i < this.moves.size(); i++){
+            final Move move;
+            try {
+                move = sanResolver.resolve(board, this.moves.get(i));
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("Move " + moveNumber(board, i) + " of the game at line " + this.line
+                        + ": " + e.getMessage(), e);
+            }
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if(!transition.getMoveStatus().isDone()){
+                throw new IllegalArgumentException("Move " + moveNumber(board, i) + " of the game at line " + this.line
+                        + ": " + this.moves.get(i) + " is " + transition.getMoveStatus());
+            }
+            board = transition.getTransitionBoard();
+        }
+        return board;
+    }
+
+    //Move number as PGN writes it, such as 12. or 12...
+    private String moveNumber(final Board board, final int index) {
+        return board.getFullmoveNumber() + (board.currentPlayer().getAlliance().isWhite() ? ". " : "... ") + this.moves.get(index);
+    }
+
+    @Override
+    public String toString() {
+        return this.tags.getOrDefault("White", "?") + " - " + this.tags.getOrDefault("Black", "?") + " " + this.result
+                + ", " + this.moves.size() + " half moves";
+    }
+}
@@ -0,0 +1,167 @@
+package com.chess.engine.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//Games of a PGN file, read one at a time as they are asked for.
+//Only the game being read is held in memory, so files of any size can be walked through, from
+//the GUI or headless. Games without a result are closed by the next game's tags or the end of the
+//file and get the result *. Read errors surface as UncheckedIOException.
+public class PgnReader implements Iterator<PgnGame>, Closeable {
+
+    private final PgnTokenizer tokenizer;
+    private PgnGame nextGame;
+    //Set when the last game ended on the opening bracket of the next game's first tag
+    private boolean tagStarted;
+    private boolean exhausted;
+
+    public PgnReader(final ReadableByteChannel channel) {
+        this.tokenizer = new PgnTokenizer(channel);
+    }
+
+    public static PgnReader open(final Path pgnFile) throws IOException {
+        return new PgnReader(FileChannel.open(pgnFile, StandardOpenOption.READ));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(this.nextGame == null && !this.exhausted){
+            try {
+                this.nextGame = readGame();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.exhausted = this.nextGame == null;
+        }
+        return this.nextGame != null;
+    }
+
+    @Override
+    public PgnGame next() {
+        if(!hasNext()){
+            throw new NoSuchElementException();
+        }
+        final PgnGame game = this.nextGame;
+        this.nextGame = null;
+        return game;
+    }
+
+    public Spliterator<PgnGame> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    //Sequential stream of the games, closing it closes the file
+    public Stream<PgnGame> stream() {
+        return StreamSupport.stream(spliterator(), false).onClose(() -> {
+            try {
+                close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.tokenizer.close();
+    }
+
+    private PgnGame readGame() throws IOException {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        final List<String> moves = new ArrayList<>();
+        long line = this.tokenizer.line();
+        int token = this.tagStarted ? PgnTokenizer.TAG_START : this.tokenizer.next();
+        this.tagStarted = false;
+        if(token != PgnTokenizer.END){
+            line = this.tokenizer.line();
+        }
+        for(; token != PgnTokenizer.END; token = this.tokenizer.next()){
+            switch(token){
+                case PgnTokenizer.TAG_START:
+                    if(!moves.isEmpty()){
+                        this.tagStarted = true;
+                        return new PgnGame(tags, moves, "*", line);
+                    }
+                    readTag(tags);
+                    break;
+                case PgnTokenizer.VARIATION_START:
+                    skipVariation();
+                    break;
+                case PgnTokenizer.SYMBOL:
+                    if(isResult()){
+                        return new PgnGame(tags, moves, this.tokenizer.text(), line);
+                    }
+                    if(!isMoveNumber() && !isEnPassantSuffix()){
+                        moves.add(this.tokenizer.text());
+                    }
+                    break;
+                default:
+                    //Periods, glyphs and stray strings or brackets
+                    break;
+            }
+        }
+        return tags.isEmpty() && moves.isEmpty() ? null : new PgnGame(tags, moves, "*", line);
+    }
+
+    //[Name "value"], anything else up to the closing bracket is dropped
+    private void readTag(final Map<String, String> tags) throws IOException {
+        String name = null;
+        int token;
+        while((token = this.tokenizer.next()) != PgnTokenizer.TAG_END && token != PgnTokenizer.END){
+            if(token == PgnTokenizer.SYMBOL && name == null){
+                name = this.tokenizer.text();
+            } else if(token == PgnTokenizer.STRING && name != null){
+                tags.put(name, this.tokenizer.text());
+            }
+        }
+    }
+
+    //Variations nest, the one being skipped ends at its own closing parenthesis
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        int token;
+        while(depth > 0 && (token = this.tokenizer.next()) != PgnTokenizer.END){
+            if(token == PgnTokenizer.VARIATION_START){
+                depth++;
+            } else if(token == PgnTokenizer.VARIATION_END){
+                depth--;
+            }
+        }
+    }
+
+    //Move numbers come before their periods and are all digits, unlike 0-0 castling
+    private boolean isMoveNumber() {
+        final String symbol = this.tokenizer.text();
+        for(int i = 0; i < symbol.length(); i++){
+            if(!Character.isDigit(symbol.charAt(i))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //An "e.p." after a capture is read as the symbols e and p between periods
+    private boolean isEnPassantSuffix() {
+        return this.tokenizer.textEquals("e") || this.tokenizer.textEquals("p");
+    }
+
+    private boolean isResult() {
+        return this.tokenizer.textEquals("1-0") || this.tokenizer.textEquals("0-1")
+                || this.tokenizer.textEquals("1/2-1/2") || this.tokenizer.textEquals("*");
+    }
+}
@@ -0,0 +1,294 @@
+package com.chess.engine.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Fen;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//Replays every game of a PGN file to check it, on as many threads as asked for.
+//The calling thread reads the file and cuts it into batches of games; a fixed set of workers on a
+//fork-join pool takes the batches and plays each game through Player.makeMove. The queue between
+//them holds a few batches per worker, so a reader that runs ahead waits instead of filling the heap.
+public class PgnReplayPipeline {
+
+    private static final int GAMES_PER_BATCH = 64;
+    private static final int BATCHES_PER_WORKER = 4;
+    //How often a reader waiting on a full queue checks that the workers are still alive
+    private static final long PUT_TIMEOUT_MILLIS = 100;
+    //Handed to each worker once the file is read
+    private static final Batch END_OF_GAMES = new Batch(0, Collections.<PgnGame>emptyList());
+
+    private final int threads;
+
+    public PgnReplayPipeline(final int threads) {
+        if(threads < 1){
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    //Hears about every game from the worker that replayed it, so calls come from several threads
+    //at once and not in file order. An exception thrown here stops the run and is rethrown by run
+    public interface Listener {
+
+        void gameReplayed(long gameNumber, PgnGame game, Board finalBoard);
+
+        void illegalMove(long gameNumber, PgnGame game, String reason);
+    }
+
+    public Summary run(final ReadableByteChannel channel, final Listener listener) throws IOException {
+        final long start = System.nanoTime();
+        final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(this.threads * BATCHES_PER_WORKER);
+        final LongAdder games = new LongAdder();
+        final LongAdder moves = new LongAdder();
+        final LongAdder illegalGames = new LongAdder();
+        final ForkJoinPool pool = new ForkJoinPool(this.threads);
+        final List<ForkJoinTask<?>> workers = new ArrayList<>(this.threads);
+        for(int i = 0; i < this.threads; i++){
+            workers.add(pool.submit(new ReplayWorker(queue, listener, games, moves, illegalGames)));
+        }
+
+        boolean finished = false;
+        try {
+            try(final PgnReader pgnReader = new PgnReader(channel)){
+                long gameNumber = 1;
+                List<PgnGame> batch = new ArrayList<>(GAMES_PER_BATCH);
+                while(pgnReader.hasNext()){
+                    batch.add(pgnReader.next());
+                    if(batch.size() == GAMES_PER_BATCH){
+                        put(queue, new Batch(gameNumber, batch), workers);
+                        gameNumber += batch.size();
+                        batch = new ArrayList<>(GAMES_PER_BATCH);
+                    }
+                }
+                if(!batch.isEmpty()){
+                    put(queue, new Batch(gameNumber, batch), workers);
+                }
+            }
+            //Workers stop on their own end marker
+            for(int i = 0; i < this.threads; i++){
+                put(queue, END_OF_GAMES, workers);
+            }
+            for(final ForkJoinTask<?> worker : workers){
+                worker.join();
+            }
+            finished = true;
+        } finally {
+            //When reading or a worker failed, the workers still waiting for games are interrupted
+            if(finished){
+                pool.shutdown();
+            } else {
+                pool.shutdownNow();
+            }
+        }
+        return new Summary(games.sum(), moves.sum(), illegalGames.sum(), (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    //Waits for room in the queue, but gives up once a worker has failed as nothing may be left to take
+    private static void put(final BlockingQueue<Batch> queue, final Batch batch, final List<ForkJoinTask<?>> workers) {
+        try {
+            while(!queue.offer(batch, PUT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)){
+                for(final ForkJoinTask<?> worker : workers){
+                    if(worker.isCompletedAbnormally()){
+                        throw new IllegalStateException("A replay worker failed", worker.getException());
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing games to the workers", e);
+        }
+    }
+
+    //Consecutive games of the file, numbered from firstGameNumber
+    private static final class Batch {
+
+        private final long firstGameNumber;
+        private final List<PgnGame> games;
+
+        Batch(final long firstGameNumber, final List<PgnGame> games) {
+            this.firstGameNumber = firstGameNumber;
+            this.games = games;
+        }
+    }
+
+    private static final class ReplayWorker implements Runnable {
+
+        private final BlockingQueue<Batch> queue;
+        private final Listener listener;
+        private final LongAdder games;
+        private final LongAdder moves;
+        private final LongAdder illegalGames;
+        private final SanResolver sanResolver = new SanResolver();
+
+        ReplayWorker(final BlockingQueue<Batch> queue, final Listener listener, final LongAdder games,
+                     final LongAdder moves, final LongAdder illegalGames) {
+            this.queue = queue;
+            this.listener = listener;
+            this.games = games;
+            this.moves = moves;
+            this.illegalGames = illegalGames;
+        }
+
+        @Override
+        public void run() {
+            Batch batch;
+            while((batch = take()) != END_OF_GAMES){
+                long gameNumber = batch.firstGameNumber;
+                for(final PgnGame game : batch.games){
+                    replay(gameNumber++, game);
+                }
+            }
+        }
+
+        private void replay(final long gameNumber, final PgnGame game) {
+            this.games.increment();
+            final Board finalBoard;
+            try {
+                finalBoard = game.replay(this.sanResolver);
+            } catch (final IllegalArgumentException e) {
+                //The resolver and the FEN tag reader reject a bad game this way
+                this.illegalGames.increment();
+                reportIllegalMove(gameNumber, game, e.getMessage());
+                return;
+            } catch (final RuntimeException e) {
+                //Anything else is an engine bug, not a fault of the archive, so the run stops on it
+                throw new IllegalStateException("Engine failed replaying game " + gameNumber + " at line " + game.getLine(), e);
+            }
+            this.moves.add(game.getMoves().size());
+            try {
+                this.listener.gameReplayed(gameNumber, game, finalBoard);
+            } catch (final RuntimeException e) {
+                throw new IllegalStateException("Listener failed on game " + gameNumber, e);
+            }
+        }
+
+        //A failing listener ends this worker, the reader sees it and stops the run
+        private void reportIllegalMove(final long gameNumber, final PgnGame game, final String reason) {
+            try {
+                this.listener.illegalMove(gameNumber, game, reason);
+            } catch (final RuntimeException e) {
+                throw new IllegalStateException("Listener failed on game " + gameNumber, e);
+            }
+        }
+
+        //Waiting on the queue blocks a pool thread, the pool is told so it can make up for it
+        private Batch take() {
+            final Batch[] taken = new Batch[1];
+            try {
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                    @Override
+                    public boolean block() throws InterruptedException {
+                        if(taken[0] == null){
+                            taken[0] = queue.take();
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        return taken[0] != null || (taken[0] = queue.poll()) != null;
+                    }
+                });
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return END_OF_GAMES;
+            }
+            return taken[0];
+        }
+    }
+
+    //Totals of one run. Moves count only the games that replayed to the end
+    public static final class Summary {
+
+        private final long games;
+        private final long moves;
+        private final long illegalGames;
+        private final long elapsedMillis;
+
+        Summary(final long games, final long moves, final long illegalGames, final long elapsedMillis) {
+            this.games = games;
+            this.moves = moves;
+            this.illegalGames = illegalGames;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getGames() {
+            return this.games;
+        }
+
+        public long getMoves() {
+            return this.moves;
+        }
+
+        public long getIllegalGames() {
+            return this.illegalGames;
+        }
+
+        public long getElapsedMillis() {
+            return this.elapsedMillis;
+        }
+
+        public long getGamesPerSecond() {
+            return this.games * 1000L / Math.max(1L, this.elapsedMillis);
+        }
+
+        @Override
+        public String toString() {
+            return "Games: " + this.games + "  Illegal: " + this.illegalGames + "  Moves: " + this.moves
+                    + "\nTime: " + this.elapsedMillis + " ms  Games/s: " + getGamesPerSecond()
+                    + "  Moves/s: " + this.moves * 1000L / Math.max(1L, this.elapsedMillis);
+        }
+    }
+
+    //Usage: PgnReplayPipeline <pgn file> [-threads n] [-positions]
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1){
+            System.out.println("Usage: PgnReplayPipeline <pgn file> [-threads n] [-positions]");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean printPositions = false;
+        for(int i = 1; i < args.length; i++){
+            if(args[i].equals("-threads") && i + 1 < args.length){
+                threads = Integer.parseInt(args[++i]);
+            } else if(args[i].equals("-positions")){
+                printPositions = true;
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        final boolean positions = printPositions;
+        final Listener listener = new Listener() {
+            @Override
+            public void gameReplayed(final long gameNumber, final PgnGame game, final Board finalBoard) {
+                if(positions){
+                    System.out.println("Game " + gameNumber + ": " + Fen.toFen(finalBoard));
+                }
+            }
+
+            @Override
+            public void illegalMove(final long gameNumber, final PgnGame game, final String reason) {
+                System.out.println("Game " + gameNumber + ": " + reason);
+            }
+        };
+        final Summary summary = new PgnReplayPipeline(threads).run(
+                FileChannel.open(Paths.get(args[0]), StandardOpenOption.READ), listener);
+        System.out.println("Threads: " + threads);
+        System.out.println(summary);
+    }
+}
@@ -0,0 +1,205 @@
+package com.chess.engine.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.charset.StandardCharsets;
+
+//Splits PGN text into tokens as it streams in from a channel.
+//The bytes pass through one fixed buffer and the text of the current token is kept in another,
+//so memory stays the same however large the file. Comments, escaped lines and anything after a
+//token's length limit are skipped without being stored.
+public final class PgnTokenizer implements Closeable {
+
+    //Token types
+    public static final int END = 0;
+    public static final int TAG_START = 1;
+    public static final int TAG_END = 2;
+    public static final int STRING = 3;
+    //Tag names, move numbers, moves and game results
+    public static final int SYMBOL = 4;
+    public static final int PERIOD = 5;
+    public static final int NAG = 6;
+    public static final int VARIATION_START = 7;
+    public static final int VARIATION_END = 8;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    //Longer strings and symbols are cut to this many bytes
+    private static final int MAX_TOKEN_LENGTH = 1 << 12;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] text = new byte[MAX_TOKEN_LENGTH];
+    private int textLength;
+    private long line = 1;
+    private boolean atLineStart = true;
+    private boolean endOfInput;
+
+    //The channel must be in blocking mode, a read that returns nothing cannot be waited out here
+    public PgnTokenizer(final ReadableByteChannel channel) {
+        if(channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()){
+            throw new IllegalArgumentException("PGN channel must be in blocking mode");
+        }
+        this.channel = channel;
+        this.buffer.flip();
+    }
+
+    //Type of the next token, END once the channel is exhausted
+    public int next() throws IOException {
+        this.textLength = 0;
+        while(true){
+            final int c = read();
+            if(c < 0){
+                return END;
+            }
+            final boolean lineStart = this.atLineStart;
+            this.atLineStart = c == '\n';
+            if(c == '\n'){
+                this.line++;
+                continue;
+            }
+            if(c == '%' && lineStart){
+                skipLine();
+                continue;
+            }
+            switch(c){
+                case ' ': case '\t': case '\r': case '\f':
+                    continue;
+                case ';':
+                    skipLine();
+                    continue;
+                case '{':
+                    skipComment();
+                    continue;
+                case '[':
+                    return TAG_START;
+                case ']':
+                    return TAG_END;
+                case '(':
+                    return VARIATION_START;
+                case ')':
+                    return VARIATION_END;
+                case '.':
+                    return PERIOD;
+                case '"':
+                    readString();
+                    return STRING;
+                case '$':
+                    readSymbol();
+                    return NAG;
+                default:
+                    append(c);
+                    readSymbol();
+                    return SYMBOL;
+            }
+        }
+    }
+
+    //Text of the last STRING, SYMBOL or NAG token
+    public String text() {
+        return new String(this.text, 0, this.textLength, StandardCharsets.UTF_8);
+    }
+
+    public boolean textEquals(final String expected) {
+        if(expected.length() != this.textLength){
+            return false;
+        }
+        for(int i = 0; i < this.textLength; i++){
+            if(this.text[i] != expected.charAt(i)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Line the last token ended on, counted from 1
+    public long line() {
+        return this.line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void readString() throws IOException {
+        int c;
+        while((c = read()) >= 0 && c != '"'){
+            if(c == '\\'){
+                c = read();
+                if(c < 0){
+                    return;
+                }
+            } else if(c == '\n'){
+                this.line++;
+            }
+            append(c);
+        }
+    }
+
+    //Letters, digits and the marks moves and results are made of
+    private void readSymbol() throws IOException {
+        int c;
+        while((c = peek()) >= 0 && (Character.isLetterOrDigit(c) || "_+#=:-/!?*".indexOf(c) >= 0)){
+            this.buffer.get();
+            append(c);
+        }
+    }
+
+    private void skipComment() throws IOException {
+        int c;
+        while((c = read()) >= 0 && c != '}'){
+            if(c == '\n'){
+                this.line++;
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while((c = peek()) >= 0 && c != '\n'){
+            this.buffer.get();
+        }
+    }
+
+    private void append(final int c) {
+        if(this.textLength < MAX_TOKEN_LENGTH){
+            this.text[this.textLength++] = (byte) c;
+        }
+    }
+
+    private int read() throws IOException {
+        final int c = peek();
+        if(c >= 0){
+            this.buffer.get();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if(!this.buffer.hasRemaining() && !fill()){
+            return -1;
+        }
+        return this.buffer.get(this.buffer.position()) & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if(this.endOfInput){
+            return false;
+        }
+        this.buffer.clear();
+        final int bytesRead = this.channel.read(this.buffer);
+        this.buffer.flip();
+        if(bytesRead == 0){
+            //A blocking read waits for at least one byte, so the channel was made non-blocking
+            throw new IOException("PGN channel returned no bytes, it must be in blocking mode");
+        }
+        if(bytesRead < 0){
+            this.endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package com.chess.engine.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.LegalMoveGenerator;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.pieces.Piece;
+
+//Turns moves in Standard Algebraic Notation into Move objects of a board.
+//The legal moves of the side to move are matched against the piece, destination and whatever
+//file or rank the SAN gives to tell pieces apart; the one move left is built by Move.MoveFactory.
+//Keeps a move list between calls, so each thread needs a resolver of its own.
+public class SanResolver {
+
+    private static final String PIECE_LETTERS = "PNRBQK";
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+    private final MoveList moves = new MoveList();
+
+    //Throws IllegalArgumentException when the SAN is malformed, illegal or ambiguous on the board
+    public Move resolve(final Board board, final CharSequence san) {
+        int end = san.length();
+        //Check marks and annotations say nothing about which move it is
+        while(end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0){
+            end--;
+        }
+        if(end < 2){
+            throw error(san, "too short");
+        }
+
+        if(isCastling(san, end)){
+            final int kingTile = Long.numberOfTrailingZeros(board.getPieces(board.currentPlayer().getAlliance(), Piece.PieceType.KING));
+            final int destination = end == 3 ? kingTile + 2 : kingTile - 2;
+            final Move move = Move.MoveFactory.createMove(board, kingTile, destination);
+            if(!move.isCastlingMove()){
+                throw error(san, "castling is not legal");
+            }
+            return move;
+        }
+
+        final char last = san.charAt(end - 1);
+        if(last == 'Q' || last == 'R' || last == 'B' || last == 'N' || (end > 2 && san.charAt(end - 2) == '=')){
+            throw error(san, "promotions are not supported");
+        }
+
+        int start = 0;
+        Piece.PieceType pieceType = Piece.PieceType.PAWN;
+        final int pieceLetter = PIECE_LETTERS.indexOf(san.charAt(0));
+        if(pieceLetter >= 0){
+            pieceType = PIECE_TYPES[pieceLetter];
+            start = 1;
+        }
+        final int destination = tile(san.charAt(end - 2), san.charAt(end - 1));
+        if(destination < 0){
+            throw error(san, "no destination tile");
+        }
+
+        //Between piece and destination: an optional file, rank or both, then an optional x
+        int fromFile = -1;
+        int fromRank = -1;
+        for(int i = start; i < end - 2; i++){
+            final char c = san.charAt(i);
+            if(c >= 'a' && c <= 'h'){
+                fromFile = c - 'a';
+            } else if(c >= '1' && c <= '8'){
+                fromRank = c - '1';
+            } else if(c != 'x' && c != ':' && c != '-'){
+                throw error(san, "unexpected '" + c + "'");
+            }
+        }
+
+        this.moves.clear();
+        LegalMoveGenerator.generateLegalMoves(board, board.currentPlayer().getAlliance(), this.moves);
+        int match = MoveEncoding.NULL_MOVE;
+        for(int i = 0; i < this.moves.size(); i++){
+            final int move = this.moves.get(i);
+            final int from = MoveEncoding.from(move);
+            if(MoveEncoding.to(move) != destination
+                    || MoveEncoding.movedPiece(move) % BoardUtils.NUM_PIECE_TYPES != pieceType.ordinal()
+                    || (fromFile >= 0 && from % BoardUtils.NUM_TILES_PER_ROW != fromFile)
+                    || (fromRank >= 0 && 7 - from / BoardUtils.NUM_TILES_PER_ROW != fromRank)
+                    || MoveEncoding.kind(move) == MoveEncoding.CASTLE){
+                continue;
+            }
+            if(match != MoveEncoding.NULL_MOVE){
+                throw error(san, "ambiguous");
+            }
+            match = move;
+        }
+        if(match == MoveEncoding.NULL_MOVE){
+            throw error(san, "no such legal move");
+        }
+        return Move.MoveFactory.createMove(board, MoveEncoding.from(match), MoveEncoding.to(match));
+    }
+
+    //O-O and O-O-O, also written with zeros
+    private static boolean isCastling(final CharSequence san, final int end) {
+        if(end != 3 && end != 5){
+            return false;
+        }
+        for(int i = 0; i < end; i++){
+            final char c = san.charAt(i);
+            if(i % 2 == 1 ? c != '-' : (c != 'O' && c != '0')){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Tile of a file and rank such as e4, -1 if they are not one
+    private static int tile(final char file, final char rank) {
+        if(file < 'a' || file > 'h' || rank < '1' || rank > '8'){
+            return -1;
+        }
+        return ('8' - rank) * BoardUtils.NUM_TILES_PER_ROW + (file - 'a');
+    }
+
+    private static IllegalArgumentException error(final CharSequence san, final String reason) {
+        return new IllegalArgumentException("Cannot play " + san + ": " + reason);
+    }
+}
@@ -1,89 +1,20 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
-import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Move.AttackingMove;
-import com.chess.engine.board.Move.MajorMove;
-import com.chess.engine.board.Tile;
-
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
 public class Knight extends Piece {
 
-    //All moves of the knight
-    private static final int[] CANDIDATE_MOVES_OFFSET = {-17,-15,-10,-6,6,10,15,17};
-
     public Knight(Alliance pieceAlliance,int piecePosition) {
-        //Call constructor of parent class
-        super(PieceType.KNIGHT, piecePosition, pieceAlliance);
-    }
-    @Override
-    public Knight movePiece(final Move move) {
-        return new Knight(move.getMovedPiece().pieceAlliance, move.getDestinationCoordinate());
+        this(pieceAlliance, piecePosition, true);
     }
-    //Implement abstract methods of Piece class
-    @Override
-    public Collection<Move> calculateLegalMoves(final Board board) {
-        int candidateDestinationCoordinate;
-        final List<Move> legalMoves = new ArrayList<>();
-        for (final int currentCandidateOffset : CANDIDATE_MOVES_OFFSET) {
-            candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
-            //Check if position is inside the board
-            if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-
-                //Check if there are no exclusions. If there, move on to next offset
-                if(isFirstColumnExclusion(this.piecePosition,currentCandidateOffset) ||
-                        isSecondColumnExclusion(this.piecePosition,currentCandidateOffset) ||
-                        isSeventhColumnExclusion(this.piecePosition,currentCandidateOffset) ||
-                        isEighthColumnExclusion(this.piecePosition,currentCandidateOffset)){
-                    continue;
-                }
-
-                final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-
-                //First check if tile is occupied. If not, then add
-                //else check if it's same team or different. If different, add.
-                if (!candidateDestinationTile.isTileOccupied()) {
-                    legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-                } else {
-                    final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-
-                    if(this.pieceAlliance != pieceAlliance){
-                        legalMoves.add(new AttackingMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                    }
-                }
-            }
 
-        }
-        return Collections.unmodifiableList(legalMoves);
+    public Knight(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
+        super(PieceType.KNIGHT, piecePosition, pieceAlliance, isFirstMove);
     }
-
-    //Exclusions/Exceptions of Knight's moves
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && ((candidateOffset == -17) ||
-                (candidateOffset == -10) || (candidateOffset == 6) || (candidateOffset == 15));
-    }
-
-    private static boolean isSecondColumnExclusion(final int currentPosition,
-                                                   final int candidateOffset) {
-        return BoardUtils.SECOND_COLUMN[currentPosition] && ((candidateOffset == -10) || (candidateOffset == 6));
-    }
-
-    private static boolean isSeventhColumnExclusion(final int currentPosition,
-                                                    final int candidateOffset) {
-        return BoardUtils.SEVENTH_COLUMN[currentPosition] && ((candidateOffset == -6) || (candidateOffset == 10));
-    }
-
-    private static boolean isEighthColumnExclusion(final int currentPosition,
-                                                   final int candidateOffset) {
-        return BoardUtils.EIGHT_COLUMN[currentPosition] && ((candidateOffset == -15) || (candidateOffset == -6) ||
-                (candidateOffset == 10) || (candidateOffset == 17));
+    @Override
+    public Knight movePiece(final Move move) {
+        return new Knight(move.getMovedPiece().pieceAlliance, move.getDestinationCoordinate(), false);
     }
     @Override
     public String toString(){
@@ -2,10 +2,14 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.LegalMoveGenerator;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveList;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 //Abstract, so cant be instantiated
@@ -25,11 +29,11 @@ public abstract class Piece {
     //HashCode for each piece
     private final int cachedHashCode;
 
-    Piece(final PieceType pieceType, final int piecePosition, final Alliance pieceAlliance){
+    Piece(final PieceType pieceType, final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove){
         this.pieceType = pieceType;
         this.pieceAlliance = pieceAlliance;
         this.piecePosition = piecePosition;
-        isFirstMove = false;
+        this.isFirstMove = isFirstMove;
         this.cachedHashCode = computeHashCode();
     }
 
@@ -57,7 +61,19 @@ public abstract class Piece {
     }
 
     public abstract Piece movePiece(Move move);
-    public abstract Collection<Move> calculateLegalMoves(final Board board);
+    //Legal moves of this piece on the board, picked out of its side's moves from LegalMoveGenerator
+    //so there is a single move generator to keep right
+    public Collection<Move> calculateLegalMoves(final Board board) {
+        final MoveList moves = new MoveList();
+        LegalMoveGenerator.generateLegalMoves(board, this.pieceAlliance, moves);
+        final List<Move> legalMoves = new ArrayList<>();
+        for(int i = 0; i < moves.size(); i++){
+            if(MoveEncoding.from(moves.get(i)) == this.piecePosition){
+                legalMoves.add(MoveEncoding.toMove(board, moves.get(i)));
+            }
+        }
+        return Collections.unmodifiableList(legalMoves);
+    }
 
 
     public boolean isFirstMove() {
@@ -74,7 +90,7 @@ public abstract class Piece {
     }
 
     public enum PieceType{
-        PAWN("P"){
+        PAWN("P", 100){
             @Override
             public boolean isKing() {
                 return false;
@@ -84,8 +100,13 @@ public abstract class Piece {
             public boolean isRook() {
                 return false;
             }
+
+            @Override
+            public Piece createPiece(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+                return new Pawn(alliance, piecePosition, isFirstMove);
+            }
         },
-        KNIGHT("N") {
+        KNIGHT("N", 320) {
             @Override
             public boolean isKing() {
                 return false;
@@ -95,8 +116,13 @@ public abstract class Piece {
             public boolean isRook() {
                 return false;
             }
+
+            @Override
+            public Piece createPiece(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+                return new Knight(alliance, piecePosition, isFirstMove);
+            }
         },
-        ROOK("R") {
+        ROOK("R", 500) {
             @Override
             public boolean isKing() {
                 return false;
@@ -104,10 +130,15 @@ public abstract class Piece {
 
             @Override
             public boolean isRook() {
-                return false;
+                return true;
+            }
+
+            @Override
+            public Piece createPiece(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+                return new Rook(alliance, piecePosition, isFirstMove);
             }
         },
-        BISHOP("B") {
+        BISHOP("B", 330) {
             @Override
             public boolean isKing() {
                 return false;
@@ -117,8 +148,13 @@ public abstract class Piece {
             public boolean isRook() {
                 return false;
             }
+
+            @Override
+            public Piece createPiece(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+                return new Bishop(alliance, piecePosition, isFirstMove);
+            }
         },
-        QUEEN("Q") {
+        QUEEN("Q", 900) {
             @Override
             public boolean isKing() {
                 return false;
@@ -126,10 +162,15 @@ public abstract class Piece {
 
             @Override
             public boolean isRook() {
-                return true;
+                return false;
+            }
+
+            @Override
+            public Piece createPiece(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+                return new Queen(alliance, piecePosition, isFirstMove);
             }
         },
-        KING("K") {
+        KING("K", 20000) {
             @Override
             public boolean isKing() {
                 return true;
@@ -139,13 +180,26 @@ public abstract class Piece {
             public boolean isRook() {
                 return false;
             }
+
+            @Override
+            public Piece createPiece(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+                return new King(alliance, piecePosition, isFirstMove);
+            }
         };
 
 
         private String pieceName;
 
-        PieceType(final String pieceName){
+        //Worth of the piece in centipawns, the king's only has to outweigh everything else
+        private final int pieceValue;
+
+        PieceType(final String pieceName, final int pieceValue){
             this.pieceName = pieceName;
+            this.pieceValue = pieceValue;
+        }
+
+        public int getPieceValue(){
+            return this.pieceValue;
         }
 
         @Override
@@ -156,5 +210,8 @@ public abstract class Piece {
         public abstract boolean isKing();
 
         public abstract boolean isRook();
+
+        //Create a piece of this type, used when rebuilding pieces from bitboards
+        public abstract Piece createPiece(Alliance alliance, int piecePosition, boolean isFirstMove);
     }
 }
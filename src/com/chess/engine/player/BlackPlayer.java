@@ -2,18 +2,13 @@ package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
-import com.chess.engine.pieces.Rook;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public class BlackPlayer extends Player{
-    public BlackPlayer(final Board board, final Collection<Move> whiteStandardLegalMoves, final Collection<Move> blackStandardLegalMoves) {
-        super(board,blackStandardLegalMoves, whiteStandardLegalMoves);
+    public BlackPlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -30,39 +25,4 @@ public class BlackPlayer extends Player{
     public Player getOpponent() {
         return this.board.whitePlayer();
     }
-
-    @Override
-    protected Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentsLegals) {
-        final List<Move> kingCastles = new ArrayList<>();
-        if(this.playerKing.isFirstMove() && !this.isInCheck()){
-
-            //Check if castling can be done on king side
-            if(!this.board.getTile(5).isTileOccupied() && !this.board.getTile(6).isTileOccupied()){
-                final Tile rookTile = this.board.getTile(7);
-                if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()){
-                    if(Player.calculateAttacksOnTile(5, opponentsLegals).isEmpty()
-                            && Player.calculateAttacksOnTile(6,opponentsLegals).isEmpty()
-                            && rookTile.getPiece().getPieceType().isRook()){
-                        kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 6, (Rook)rookTile.getPiece(),
-                                rookTile.getTileCoordinate(),5));
-                    }
-                }
-            }
-            //Queen side
-            if(!this.board.getTile(1).isTileOccupied() && !this.board.getTile(2).isTileOccupied()
-                    && !this.board.getTile(3).isTileOccupied()){
-                final Tile rookTile = this.board.getTile(0);
-                if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()){
-                    if(Player.calculateAttacksOnTile(2, opponentsLegals).isEmpty()
-                            && Player.calculateAttacksOnTile(3,opponentsLegals).isEmpty()
-                            && rookTile.getPiece().getPieceType().isRook()){
-                        kingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing, 2, (Rook)rookTile.getPiece(),
-                                rookTile.getTileCoordinate(),3));
-                    }
-
-                }
-            }
-        }
-        return null;
-    }
 }
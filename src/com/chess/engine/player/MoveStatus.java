@@ -13,12 +13,6 @@ public enum MoveStatus {
         public boolean isDone() {
             return false;
         }
-    },
-    LEAVES_PLAYER_IN_CHECK{
-        @Override
-        public boolean isDone() {
-            return false;
-        }
     };
 
     public abstract boolean isDone();
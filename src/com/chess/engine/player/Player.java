@@ -2,39 +2,25 @@ package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.LegalMoveGenerator;
 import com.chess.engine.board.Move;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 public abstract class Player {
 
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves ;
-    private final boolean isInCheck;
+    //Worked out on first use, most boards built while testing moves are never asked for them
+    private volatile Collection<Move> legalMoves;
+    private volatile Boolean isInCheck;
 
-    Player(final Board board,  Collection<Move> legalMoves, Collection<Move> opponentMoves){
+    Player(final Board board){
         this.board = board;
         this.playerKing = establishKing();
-     //   legalMoves.addAll(calculateKingCastles(legalMoves,opponentMoves));
-        this.legalMoves = legalMoves;
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
-    }
-
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> opponentMoves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for(final Move move : opponentMoves){
-            if(piecePosition == move.getDestinationCoordinate()){
-                attackMoves.add(move);
-            }
-        }
-
-        return Collections.unmodifiableList(attackMoves);
     }
 
     public King getPlayerKing(){
@@ -51,33 +37,47 @@ public abstract class Player {
     }
 
     public Collection<Move> getLegalMoves(){
-        return this.legalMoves;
+        Collection<Move> legalMoves = this.legalMoves;
+        if(legalMoves == null){
+            legalMoves = calculateLegalMoves();
+            this.legalMoves = legalMoves;
+        }
+        return legalMoves;
+    }
+
+    //Only strictly legal moves are generated, so none of them can leave the king in check
+    private Collection<Move> calculateLegalMoves() {
+        return Collections.unmodifiableList(LegalMoveGenerator.generateLegalMoves(this.board, getAlliance()));
     }
 
     public boolean isLegalMove(final Move move){
-        return this.legalMoves.contains(move);
+        return getLegalMoves().contains(move);
     }
 
     public boolean isInCheck(){
-        return this.isInCheck;
+        Boolean isInCheck = this.isInCheck;
+        if(isInCheck == null){
+            isInCheck = isTileAttacked(this.playerKing.getPiecePosition());
+            this.isInCheck = isInCheck;
+        }
+        return isInCheck;
     }
+
+    //True if any opponent piece attacks the tile, answered from the attack tables
+    protected boolean isTileAttacked(final int tileCoordinate){
+        return this.board.isSquareAttacked(tileCoordinate, getAlliance().getOpposite());
+    }
+
     public boolean isInCheckMate(){
-        return this.isInCheck && !hasEscapeMoves();
+        return isInCheck() && !hasEscapeMoves();
     }
 
     public boolean isInStaleMate(){
-        return !this.isInCheck && !hasEscapeMoves();
+        return !isInCheck() && !hasEscapeMoves();
     }
 
     protected boolean hasEscapeMoves(){
-        for(final Move move : this.legalMoves){
-            final MoveTransition transition = makeMove(move);
-            if(transition.getMoveStatus().isDone()){
-                return true;
-            }
-        }
-        return false;
-
+        return !getLegalMoves().isEmpty();
     }
 
     public boolean isCastled(){
@@ -89,21 +89,14 @@ public abstract class Player {
             return new MoveTransition(this.board,move,MoveStatus.ILLEGAL_MOVE);
         }
 
-        final Board transitionBoard = move.execute();
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.currentPlayer().getOpponent().getPlayerKing()
-        .getPiecePosition(), transitionBoard.currentPlayer().getLegalMoves());
-
-        if(!kingAttacks.isEmpty()){
-            return new MoveTransition(this.board,move,MoveStatus.LEAVES_PLAYER_IN_CHECK);
-        }
-        return new MoveTransition(transitionBoard,move,MoveStatus.DONE);
+        //Legal moves never leave the king attacked, so the move can be executed straight away
+        return new MoveTransition(move.execute(),move,MoveStatus.DONE);
     }
 
 
     public abstract Collection<Piece> getActivePieces();
     public abstract Alliance getAlliance();
     public abstract Player getOpponent();
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentsLegals);
 
 
 }
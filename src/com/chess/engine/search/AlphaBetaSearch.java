@@ -0,0 +1,166 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.endgame.EndgameBitbases;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Iterative deepening negamax alpha-beta search with a hard time limit.
+//Searches depth 1, 2, 3, ... until the depth limit is reached or the time is up, and answers
+//with the result of the deepest iteration that finished. Each iteration starts from the best
+//line of the one before, which the transposition table hands back.
+//With more than one thread the search runs as Lazy SMP: helper threads search the same root on
+//boards of their own, half of them one ply ahead, and fill the shared transposition table with
+//results the main thread then finds. Only the main thread's iterations make up the answer.
+public class AlphaBetaSearch implements MoveStrategy {
+
+    private static final int DEFAULT_TABLE_SIZE_MB = 64;
+    private static final long[] NO_GAME_KEYS = new long[0];
+
+    private final int maxDepth;
+    private final long timeLimitMillis;
+    private final int threads;
+    private final TranspositionTable transpositionTable;
+    private final EndgameBitbases bitbases;
+
+    public AlphaBetaSearch(final int maxDepth, final long timeLimitMillis) {
+        this(maxDepth, timeLimitMillis, 1);
+    }
+
+    public AlphaBetaSearch(final int maxDepth, final long timeLimitMillis, final int threads) {
+        this(maxDepth, timeLimitMillis, threads, new TranspositionTable(DEFAULT_TABLE_SIZE_MB));
+    }
+
+    public AlphaBetaSearch(final int maxDepth, final long timeLimitMillis, final int threads,
+                           final TranspositionTable transpositionTable) {
+        this(maxDepth, timeLimitMillis, threads, transpositionTable, null);
+    }
+
+    //Bitbases may be null, the search then knows no more about endings than the evaluation does
+    public AlphaBetaSearch(final int maxDepth, final long timeLimitMillis, final int threads,
+                           final TranspositionTable transpositionTable, final EndgameBitbases bitbases) {
+        if(maxDepth < 1 || maxDepth >= Searcher.MAX_PLY){
+            throw new IllegalArgumentException("Depth must be between 1 and " + (Searcher.MAX_PLY - 1) + ": " + maxDepth);
+        }
+        if(timeLimitMillis <= 0){
+            throw new IllegalArgumentException("Time limit must be positive: " + timeLimitMillis);
+        }
+        if(threads < 1){
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.maxDepth = maxDepth;
+        this.timeLimitMillis = timeLimitMillis;
+        this.threads = threads;
+        this.transpositionTable = transpositionTable;
+        this.bitbases = bitbases;
+    }
+
+    //Searches without the moves that led to the board, so it does not see a return to a position
+    //from earlier in the game as a repetition
+    @Override
+    public SearchResult execute(final Board board) {
+        return execute(board, NO_GAME_KEYS);
+    }
+
+    //Game keys are the Zobrist keys of the positions played before the board, oldest first
+    public SearchResult execute(final Board board, final long[] gameKeys) {
+        final long start = System.nanoTime();
+        final long deadlineNanos = start + this.timeLimitMillis * 1_000_000L;
+        this.transpositionTable.newSearch();
+        final AtomicBoolean stopSignal = new AtomicBoolean(false);
+        final Searcher searcher = new Searcher(new MutableBoard(board, gameKeys), this.transpositionTable, this.bitbases,
+                deadlineNanos, stopSignal);
+
+        final Searcher[] helpers = new Searcher[this.threads - 1];
+        final Thread[] helperThreads = new Thread[helpers.length];
+        for(int i = 0; i < helpers.length; i++){
+            final Searcher helper = new Searcher(new MutableBoard(board, gameKeys), this.transpositionTable, this.bitbases,
+                    deadlineNanos, stopSignal);
+            //Odd helpers start a ply deeper so the threads do not all walk the same tree in step
+            final int firstDepth = 1 + (i % 2);
+            helpers[i] = helper;
+            helperThreads[i] = new Thread(() -> {
+                for(int depth = firstDepth; depth <= this.maxDepth && !helper.isStopped(); depth++){
+                    helper.search(depth);
+                }
+            }, "search-helper-" + (i + 1));
+            helperThreads[i].setDaemon(true);
+            helperThreads[i].start();
+        }
+
+        int[] bestLine = new int[0];
+        int bestScore = 0;
+        int completedDepth = 0;
+        for(int depth = 1; depth <= this.maxDepth; depth++){
+            final int score = searcher.search(depth);
+            if(searcher.isStopped()){
+                break;
+            }
+            bestLine = searcher.getPrincipalVariation();
+            bestScore = score;
+            completedDepth = depth;
+            //Nothing to gain from searching deeper once a forced mate is found, or with no move to make
+            if(Evaluation.isMateScore(score) || bestLine.length == 0){
+                break;
+            }
+        }
+
+        stopSignal.set(true);
+        long nodes = searcher.getNodes();
+        for(int i = 0; i < helpers.length; i++){
+            joinHelper(helperThreads[i]);
+            nodes += helpers[i].getNodes();
+        }
+        final long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        return createResult(board, bestLine, bestScore, completedDepth, nodes, elapsedMillis);
+    }
+
+    //Helpers stop within a few thousand nodes of the stop signal
+    private static void joinHelper(final Thread helperThread) {
+        try {
+            helperThread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //Turn the encoded line back into Move objects by playing it out on the board
+    static SearchResult createResult(final Board board, final int[] line, final int score, final int depth,
+                                     final long nodes, final long elapsedMillis) {
+        final List<Move> principalVariation = new ArrayList<>(line.length);
+        Board currentBoard = board;
+        for(final int encodedMove : line){
+            final Move move = MoveEncoding.toMove(currentBoard, encodedMove);
+            principalVariation.add(move);
+            currentBoard = currentBoard.currentPlayer().makeMove(move).getTransitionBoard();
+        }
+        final Move bestMove = principalVariation.isEmpty() ? Move.NULL_MOVE : principalVariation.get(0);
+        return new SearchResult(bestMove, score, depth, principalVariation, nodes, elapsedMillis);
+    }
+
+    //Usage: AlphaBetaSearch <time in ms> [-depth n] [-threads n]
+    public static void main(String[] args) {
+        if(args.length < 1){
+            System.out.println("Usage: AlphaBetaSearch <time in ms> [-depth n] [-threads n]");
+            return;
+        }
+        final long timeLimitMillis = Long.parseLong(args[0]);
+        int maxDepth = Searcher.MAX_PLY - 1;
+        int threads = 1;
+        for(int i = 1; i < args.length; i++){
+            if(args[i].equals("-depth") && i + 1 < args.length){
+                maxDepth = Integer.parseInt(args[++i]);
+            } else if(args[i].equals("-threads") && i + 1 < args.length){
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        System.out.println(new AlphaBetaSearch(maxDepth, timeLimitMillis, threads).execute(Board.createStandardBoard()));
+    }
+}
@@ -0,0 +1,38 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.book.PolyglotBook;
+
+import java.util.Collections;
+import java.util.Random;
+
+//Answers book positions straight from the opening book and hands every other position to the
+//wrapped strategy. A book move comes back as a depth 0 result with no nodes searched
+public class BookMoveStrategy implements MoveStrategy {
+
+    private final PolyglotBook book;
+    private final MoveStrategy fallbackStrategy;
+    private final Random random;
+
+    public BookMoveStrategy(final PolyglotBook book, final MoveStrategy fallbackStrategy) {
+        this(book, fallbackStrategy, new Random());
+    }
+
+    public BookMoveStrategy(final PolyglotBook book, final MoveStrategy fallbackStrategy, final Random random) {
+        this.book = book;
+        this.fallbackStrategy = fallbackStrategy;
+        this.random = random;
+    }
+
+    @Override
+    public SearchResult execute(final Board board) {
+        final long startTime = System.nanoTime();
+        final Move bookMove = this.book.selectMove(board, this.random);
+        if(bookMove == Move.NULL_MOVE){
+            return this.fallbackStrategy.execute(board);
+        }
+        final long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        return new SearchResult(bookMove, Evaluation.DRAW, 0, Collections.singletonList(bookMove), 0, elapsedMillis);
+    }
+}
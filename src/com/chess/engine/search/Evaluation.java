@@ -0,0 +1,72 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.pieces.Piece;
+
+//Static scores of positions, in centipawns from the view of the side to move
+public class Evaluation {
+
+    //Score of being mated right now, mates further away score closer to zero by one per ply
+    public static final int MATE = 30000;
+    //Above every score a search can return
+    public static final int INFINITY = 32000;
+    public static final int DRAW = 0;
+    //Won endings the bitbases vouch for score this much plus the static score, well below any mate
+    public static final int KNOWN_WIN = 10000;
+
+    //Mates are never further away than this many plies
+    private static final int MAX_MATE_PLY = 256;
+
+    private Evaluation(){
+        throw new RuntimeException("Cannot instantiate");
+    }
+
+    //Material and piece placement, tapered between middlegame and endgame. The board keeps the
+    //piece-square sums up to date as moves are made, so this is a handful of reads.
+    public static int evaluate(final MutableBoard board) {
+        final int score = PieceSquareTables.taper(board.getMiddlegameScore(), board.getEndgameScore(), board.getPhase());
+        return board.getSideToMove().isWhite() ? score : -score;
+    }
+
+    //As above, plus the pawn structure and king shelter terms, looked up by pawn key in the cache.
+    //The shelter only counts in the middlegame, when there are attackers to shelter from.
+    static int evaluate(final MutableBoard board, final PawnCache pawnCache) {
+        final long pawnTerms = pawnCache.probe(board.getPawnKey(),
+                board.getPieces(Alliance.WHITE, Piece.PieceType.PAWN), board.getPieces(Alliance.BLACK, Piece.PieceType.PAWN));
+        final int whiteKing = Long.numberOfTrailingZeros(board.getPieces(Alliance.WHITE, Piece.PieceType.KING));
+        final int blackKing = Long.numberOfTrailingZeros(board.getPieces(Alliance.BLACK, Piece.PieceType.KING));
+        final int shelter = PawnStructure.shield(pawnTerms, true, whiteKing) - PawnStructure.shield(pawnTerms, false, blackKing);
+        final int score = PieceSquareTables.taper(
+                board.getMiddlegameScore() + PawnStructure.middlegame(pawnTerms) + shelter,
+                board.getEndgameScore() + PawnStructure.endgame(pawnTerms), board.getPhase());
+        return board.getSideToMove().isWhite() ? score : -score;
+    }
+
+    public static boolean isMateScore(final int score) {
+        return Math.abs(score) >= MATE - MAX_MATE_PLY;
+    }
+
+    //Mate scores count plies from the root, the transposition table keeps them counted from the
+    //stored position so they stay right when the position is reached along another path
+    static int toTableScore(final int score, final int ply) {
+        if(score >= MATE - MAX_MATE_PLY){
+            return score + ply;
+        }
+        if(score <= -MATE + MAX_MATE_PLY){
+            return score - ply;
+        }
+        return score;
+    }
+
+    static int fromTableScore(final int score, final int ply) {
+        if(score >= MATE - MAX_MATE_PLY){
+            return score - ply;
+        }
+        if(score <= -MATE + MAX_MATE_PLY){
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,78 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.pieces.Piece;
+
+//What the search has learned about which moves cut off: the killer moves of every ply and a
+//history of quiet moves by moved piece, from and to tile. Captures are ranked by most valuable
+//victim and least valuable attacker. Kept per searcher, the killers and history describe the
+//tree that searcher walks. MovePicker uses these scores to hand out moves best first.
+final class MoveOrdering {
+
+    //History scores are halved before they can reach this
+    private static final int MAX_HISTORY_SCORE = 1 << 27;
+
+    private static final int KILLERS_PER_PLY = 2;
+
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+    //MVV_LVA[victim][attacker] by piece type, a bigger victim always outranks a cheaper attacker
+    private static final int[][] MVV_LVA = new int[PIECE_TYPES.length][PIECE_TYPES.length];
+
+    static {
+        for(final Piece.PieceType victim : PIECE_TYPES){
+            for(final Piece.PieceType attacker : PIECE_TYPES){
+                MVV_LVA[victim.ordinal()][attacker.ordinal()] = victim.getPieceValue() * 10 - attacker.getPieceValue() / 100;
+            }
+        }
+    }
+
+    private final int[][] killers = new int[Searcher.MAX_PLY][KILLERS_PER_PLY];
+    //Indexed by the moved piece, so each side has its own counts, then from and to tile
+    private final int[][][] history = new int[BoardUtils.NUM_PIECE_INDEXES][BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+
+    static int captureScore(final int move) {
+        return MVV_LVA[MoveEncoding.capturedPiece(move) % BoardUtils.NUM_PIECE_TYPES]
+                      [MoveEncoding.movedPiece(move) % BoardUtils.NUM_PIECE_TYPES];
+    }
+
+    //Worth of the piece with the given piece index
+    static int pieceValue(final int pieceIndex) {
+        return PIECE_TYPES[pieceIndex % BoardUtils.NUM_PIECE_TYPES].getPieceValue();
+    }
+
+    int historyScore(final int move) {
+        return this.history[MoveEncoding.movedPiece(move)][MoveEncoding.from(move)][MoveEncoding.to(move)];
+    }
+
+    int getKiller(final int ply, final int slot) {
+        return this.killers[ply][slot];
+    }
+
+    //A quiet move that caused a cutoff becomes a killer of its ply and gains history
+    void updateQuietCutoff(final int move, final int ply, final int depth) {
+        final int[] plyKillers = this.killers[ply];
+        if(plyKillers[0] != move){
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        final int[] toScores = this.history[MoveEncoding.movedPiece(move)][MoveEncoding.from(move)];
+        final int to = MoveEncoding.to(move);
+        toScores[to] += depth * depth;
+        if(toScores[to] > MAX_HISTORY_SCORE){
+            ageHistory();
+        }
+    }
+
+    //Keep the order of the history but make room for new counts
+    private void ageHistory() {
+        for(final int[][] fromScores : this.history){
+            for(final int[] toScores : fromScores){
+                for(int to = 0; to < toScores.length; to++){
+                    toScores[to] >>= 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.LegalMoveGenerator;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.StaticExchange;
+import com.chess.engine.pieces.Piece;
+
+//Hands out the moves of one node in stages: the hash move, captures that win material or trade
+//evenly, the two killer moves, the quiet moves by history, and last the captures that lose
+//material. A stage is only generated once the one before it has run out, so a node that cuts
+//off on the hash move or a capture never generates its quiet moves at all.
+//In quiescence search only the good captures are handed out, the losing ones are never made.
+//One picker per ply is reused for every node searched at that ply.
+final class MovePicker {
+
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int GOOD_CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int GENERATE_QUIET_MOVES = 5;
+    private static final int QUIET_MOVES = 6;
+    private static final int BAD_CAPTURES = 7;
+    private static final int DONE = 8;
+
+    private final MoveOrdering moveOrdering;
+    private final MoveList moves = new MoveList();
+    private final MoveList badCaptures = new MoveList();
+    private int[] scores = new int[256];
+
+    private MutableBoard board;
+    private int ply;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int stage;
+    private int index;
+    private boolean capturesOnly;
+
+    MovePicker(final MoveOrdering moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    //Start on a new node, the hash move may come from another position and is checked first
+    void reset(final MutableBoard board, final int ply, final int hashMove) {
+        this.board = board;
+        this.ply = ply;
+        this.hashMove = hashMove;
+        this.stage = HASH_MOVE;
+        this.capturesOnly = false;
+        this.badCaptures.clear();
+    }
+
+    //Start on a quiescence node, which only looks at captures that do not lose material
+    void resetForQuiescence(final MutableBoard board, final int ply) {
+        this.board = board;
+        this.ply = ply;
+        this.hashMove = MoveEncoding.NULL_MOVE;
+        this.stage = GENERATE_CAPTURES;
+        this.capturesOnly = true;
+        this.badCaptures.clear();
+    }
+
+    //The next move to search, MoveEncoding.NULL_MOVE once every legal move was handed out
+    int next() {
+        while(true){
+            switch(this.stage){
+                case HASH_MOVE:
+                    this.stage = GENERATE_CAPTURES;
+                    if(LegalMoveGenerator.isLegal(this.board, this.hashMove)){
+                        return this.hashMove;
+                    }
+                    this.hashMove = MoveEncoding.NULL_MOVE;
+                    break;
+                case GENERATE_CAPTURES:
+                    this.moves.clear();
+                    LegalMoveGenerator.generateCaptures(this.board, this.moves);
+                    scoreCaptures();
+                    this.index = 0;
+                    this.stage = GOOD_CAPTURES;
+                    break;
+                case GOOD_CAPTURES:
+                    while(this.index < this.moves.size()){
+                        final int move = pickBest();
+                        if(move == this.hashMove){
+                            continue;
+                        }
+                        if(!isGoodCapture(move)){
+                            if(!this.capturesOnly){
+                                this.badCaptures.add(move);
+                            }
+                            continue;
+                        }
+                        return move;
+                    }
+                    if(this.capturesOnly){
+                        this.stage = DONE;
+                        break;
+                    }
+                    this.firstKiller = this.moveOrdering.getKiller(this.ply, 0);
+                    this.secondKiller = this.moveOrdering.getKiller(this.ply, 1);
+                    this.stage = FIRST_KILLER;
+                    break;
+                case FIRST_KILLER:
+                    this.stage = SECOND_KILLER;
+                    if(isUsableKiller(this.firstKiller)){
+                        return this.firstKiller;
+                    }
+                    this.firstKiller = MoveEncoding.NULL_MOVE;
+                    break;
+                case SECOND_KILLER:
+                    this.stage = GENERATE_QUIET_MOVES;
+                    if(this.secondKiller != this.firstKiller && isUsableKiller(this.secondKiller)){
+                        return this.secondKiller;
+                    }
+                    this.secondKiller = MoveEncoding.NULL_MOVE;
+                    break;
+                case GENERATE_QUIET_MOVES:
+                    this.moves.clear();
+                    LegalMoveGenerator.generateQuietMoves(this.board, this.moves);
+                    scoreQuietMoves();
+                    this.index = 0;
+                    this.stage = QUIET_MOVES;
+                    break;
+                case QUIET_MOVES:
+                    while(this.index < this.moves.size()){
+                        final int move = pickBest();
+                        if(move != this.hashMove && move != this.firstKiller && move != this.secondKiller){
+                            return move;
+                        }
+                    }
+                    this.index = 0;
+                    this.stage = BAD_CAPTURES;
+                    break;
+                case BAD_CAPTURES:
+                    if(this.index < this.badCaptures.size()){
+                        return this.badCaptures.get(this.index++);
+                    }
+                    this.stage = DONE;
+                    break;
+                default:
+                    return MoveEncoding.NULL_MOVE;
+            }
+        }
+    }
+
+    //A capture is good if the exchange it starts does not lose material. Taking something worth
+    //at least the capturing piece is good whatever follows, so the exchange is only worked out
+    //for the rest. The king only takes what is not defended, so its captures are always good.
+    private boolean isGoodCapture(final int move) {
+        final int movedPiece = MoveEncoding.movedPiece(move);
+        return movedPiece % BoardUtils.NUM_PIECE_TYPES == Piece.PieceType.KING.ordinal()
+                || MoveOrdering.pieceValue(MoveEncoding.capturedPiece(move)) >= MoveOrdering.pieceValue(movedPiece)
+                || StaticExchange.isAtLeast(this.board, move, 0);
+    }
+
+    //Killers are quiet moves that cut off in a sibling node, they may not be legal here
+    private boolean isUsableKiller(final int killer) {
+        return killer != MoveEncoding.NULL_MOVE && killer != this.hashMove && !MoveEncoding.isCapture(killer)
+                && LegalMoveGenerator.isLegal(this.board, killer);
+    }
+
+    private void scoreCaptures() {
+        ensureScoreCapacity();
+        for(int i = 0; i < this.moves.size(); i++){
+            this.scores[i] = MoveOrdering.captureScore(this.moves.get(i));
+        }
+    }
+
+    private void scoreQuietMoves() {
+        ensureScoreCapacity();
+        for(int i = 0; i < this.moves.size(); i++){
+            this.scores[i] = this.moveOrdering.historyScore(this.moves.get(i));
+        }
+    }
+
+    private void ensureScoreCapacity() {
+        if(this.scores.length < this.moves.size()){
+            this.scores = new int[this.moves.size()];
+        }
+    }
+
+    //Swap the best remaining move into place and step past it. Selection is lazy because most
+    //nodes cut off after a move or two and never need the rest sorted.
+    private int pickBest() {
+        int bestIndex = this.index;
+        for(int i = this.index + 1; i < this.moves.size(); i++){
+            if(this.scores[i] > this.scores[bestIndex]){
+                bestIndex = i;
+            }
+        }
+        if(bestIndex != this.index){
+            this.moves.swap(this.index, bestIndex);
+            final int score = this.scores[this.index];
+            this.scores[this.index] = this.scores[bestIndex];
+            this.scores[bestIndex] = score;
+        }
+        return this.moves.get(this.index++);
+    }
+}
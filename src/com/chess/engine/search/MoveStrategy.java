@@ -0,0 +1,9 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+
+//Picks a move for the side to move on the board
+public interface MoveStrategy {
+
+    SearchResult execute(Board board);
+}
@@ -0,0 +1,37 @@
+package com.chess.engine.search;
+
+import java.util.Arrays;
+
+//Fixed-size cache of PawnStructure terms keyed by the pawn hash of a board.
+//Most moves leave the pawns alone, so nearly every evaluation finds its pawn terms here instead
+//of working them out again. Each searcher has its own cache, so no locking is needed.
+final class PawnCache {
+
+    //No pawn key is expected to ever hash to this, it marks an empty slot
+    private static final long EMPTY_KEY = -1L;
+
+    private final long[] keys;
+    private final long[] terms;
+    private final int indexMask;
+
+    //The entry count is rounded down to a power of two
+    PawnCache(final int entries) {
+        final int size = Integer.highestOneBit(Math.max(entries, 1));
+        this.keys = new long[size];
+        this.terms = new long[size];
+        this.indexMask = size - 1;
+        Arrays.fill(this.keys, EMPTY_KEY);
+    }
+
+    //Pawn terms of the structure, worked out and stored if the cache does not have them
+    long probe(final long pawnKey, final long whitePawns, final long blackPawns) {
+        final int index = (int)pawnKey & this.indexMask;
+        if(this.keys[index] == pawnKey){
+            return this.terms[index];
+        }
+        final long structureTerms = PawnStructure.evaluate(whitePawns, blackPawns);
+        this.keys[index] = pawnKey;
+        this.terms[index] = structureTerms;
+        return structureTerms;
+    }
+}
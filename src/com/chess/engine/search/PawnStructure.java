@@ -0,0 +1,129 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.BoardUtils;
+
+//Evaluation terms that depend on nothing but the pawns: doubled, isolated and passed pawns, and
+//how well the pawns in front of each castled king position shield it.
+//All terms are packed into one long so PawnCache can keep them per pawn structure:
+//  bits  0-15  middlegame score, bits 16-31 endgame score, both from white's side
+//  bits 32-39  white shield on the queen side, bits 40-47 white shield on the king side
+//  bits 48-55  black shield on the queen side, bits 56-63 black shield on the king side
+final class PawnStructure {
+
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    //By ranks advanced from the starting rank of the pawn's side
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 15, 25, 40, 65, 100, 0};
+    //Own pawn on each shield file one or two ranks in front of the king, or none at all
+    private static final int SHIELD_ONE_RANK = 12;
+    private static final int SHIELD_TWO_RANKS = 6;
+    private static final int SHIELD_MISSING = -12;
+
+    private static final long[] FILES = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long[] ADJACENT_FILES = new long[BoardUtils.NUM_TILES_PER_ROW];
+    //Tiles in front of a pawn on its own and the adjacent files, by alliance ordinal and tile
+    private static final long[][] PASSED_PAWN_MASKS = new long[2][BoardUtils.NUM_TILES];
+
+    private static final int WHITE = 0;
+    private static final int BLACK = 1;
+
+    static {
+        for(int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++){
+            for(int row = 0; row < BoardUtils.NUM_TILES_PER_ROW; row++){
+                FILES[file] |= 1L << (row * BoardUtils.NUM_TILES_PER_ROW + file);
+            }
+        }
+        for(int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++){
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0L) | (file < 7 ? FILES[file + 1] : 0L);
+        }
+        for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++){
+            final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+            final long files = FILES[tile % BoardUtils.NUM_TILES_PER_ROW] | ADJACENT_FILES[tile % BoardUtils.NUM_TILES_PER_ROW];
+            //Row 0 is the eighth rank, so white pawns advance towards lower rows
+            final long rowsAbove = row == 0 ? 0L : -1L >>> (BoardUtils.NUM_TILES - row * BoardUtils.NUM_TILES_PER_ROW);
+            final long rowsBelow = row == 7 ? 0L : -1L << ((row + 1) * BoardUtils.NUM_TILES_PER_ROW);
+            PASSED_PAWN_MASKS[WHITE][tile] = files & rowsAbove;
+            PASSED_PAWN_MASKS[BLACK][tile] = files & rowsBelow;
+        }
+    }
+
+    private PawnStructure(){
+        throw new RuntimeException("Cannot instantiate");
+    }
+
+    static long evaluate(final long whitePawns, final long blackPawns) {
+        int middlegame = 0;
+        int endgame = 0;
+        for(int side = WHITE; side <= BLACK; side++){
+            final long ownPawns = side == WHITE ? whitePawns : blackPawns;
+            final long enemyPawns = side == WHITE ? blackPawns : whitePawns;
+            final int sign = side == WHITE ? 1 : -1;
+            for(int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++){
+                final int pawnsOnFile = Long.bitCount(ownPawns & FILES[file]);
+                if(pawnsOnFile > 1){
+                    middlegame += sign * DOUBLED_MIDDLEGAME * (pawnsOnFile - 1);
+                    endgame += sign * DOUBLED_ENDGAME * (pawnsOnFile - 1);
+                }
+            }
+            for(long pawns = ownPawns; pawns != 0; pawns &= pawns - 1){
+                final int tile = Long.numberOfTrailingZeros(pawns);
+                if((ownPawns & ADJACENT_FILES[tile % BoardUtils.NUM_TILES_PER_ROW]) == 0){
+                    middlegame += sign * ISOLATED_MIDDLEGAME;
+                    endgame += sign * ISOLATED_ENDGAME;
+                }
+                final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+                final int advanced = side == WHITE ? 6 - row : row - 1;
+                //A pawn on its own back rank can only come from a hand made position, it is not scored as passed
+                if(advanced >= 0 && (enemyPawns & PASSED_PAWN_MASKS[side][tile]) == 0){
+                    middlegame += sign * PASSED_MIDDLEGAME[advanced];
+                    endgame += sign * PASSED_ENDGAME[advanced];
+                }
+            }
+        }
+        return (middlegame & 0xFFFFL)
+                | (endgame & 0xFFFFL) << 16
+                | (shield(whitePawns, WHITE, 0) & 0xFFL) << 32
+                | (shield(whitePawns, WHITE, 5) & 0xFFL) << 40
+                | (shield(blackPawns, BLACK, 0) & 0xFFL) << 48
+                | (shield(blackPawns, BLACK, 5) & 0xFFL) << 56;
+    }
+
+    static int middlegame(final long terms) {
+        return (short)terms;
+    }
+
+    static int endgame(final long terms) {
+        return (short)(terms >>> 16);
+    }
+
+    //Shield of the side's king on the given tile, only a king on the wings of its back rank gets one
+    static int shield(final long terms, final boolean white, final int kingTile) {
+        final int file = kingTile % BoardUtils.NUM_TILES_PER_ROW;
+        final int backRankRow = white ? 7 : 0;
+        if(kingTile / BoardUtils.NUM_TILES_PER_ROW != backRankRow || (file > 2 && file < 5)){
+            return 0;
+        }
+        final int shift = (white ? 32 : 48) + (file >= 5 ? 8 : 0);
+        return (byte)(terms >>> shift);
+    }
+
+    //Pawns on the three files starting at firstFile, one or two ranks in front of the back rank
+    private static int shield(final long pawns, final int side, final int firstFile) {
+        final int oneRankRow = side == WHITE ? 6 : 1;
+        final int twoRanksRow = side == WHITE ? 5 : 2;
+        int shield = 0;
+        for(int file = firstFile; file < firstFile + 3; file++){
+            if((pawns & (1L << (oneRankRow * BoardUtils.NUM_TILES_PER_ROW + file))) != 0){
+                shield += SHIELD_ONE_RANK;
+            } else if((pawns & (1L << (twoRanksRow * BoardUtils.NUM_TILES_PER_ROW + file))) != 0){
+                shield += SHIELD_TWO_RANKS;
+            } else {
+                shield += SHIELD_MISSING;
+            }
+        }
+        return shield;
+    }
+}
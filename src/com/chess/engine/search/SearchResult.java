@@ -0,0 +1,71 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+
+import java.util.Collections;
+import java.util.List;
+
+//Outcome of a search: the move to play, its score and the line the search expects to follow
+public class SearchResult {
+
+    private final Move bestMove;
+    private final int score;
+    private final int depth;
+    private final List<Move> principalVariation;
+    private final long nodes;
+    private final long elapsedMillis;
+
+    SearchResult(final Move bestMove, final int score, final int depth, final List<Move> principalVariation,
+                 final long nodes, final long elapsedMillis) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = Collections.unmodifiableList(principalVariation);
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    //Move.NULL_MOVE if the side to move has no legal move
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
+    //Centipawns from the view of the side to move, see Evaluation.isMateScore for mates
+    public int getScore() {
+        return this.score;
+    }
+
+    //Deepest iteration that was searched completely
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("depth ").append(this.depth)
+               .append(" score ").append(this.score)
+               .append(" nodes ").append(this.nodes)
+               .append(" time ").append(this.elapsedMillis)
+               .append(" pv");
+        for(final Move move : this.principalVariation){
+            builder.append(' ')
+                   .append(BoardUtils.getPositionAtCoordinate(move.getCurrentCoordinate()))
+                   .append(BoardUtils.getPositionAtCoordinate(move.getDestinationCoordinate()));
+        }
+        return builder.toString();
+    }
+}
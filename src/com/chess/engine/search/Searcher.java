@@ -0,0 +1,234 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.endgame.EndgameBitbases;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Negamax alpha-beta search of one position on one thread.
+//Works on a MutableBoard with encoded moves and one move picker per ply, so the search itself
+//creates no garbage. The principal variation is kept in a triangular table: row ply holds the
+//best line found from that ply on.
+//Several searchers may share one transposition table, each on its own thread and board.
+final class Searcher {
+
+    //Deepest ply the search can reach
+    static final int MAX_PLY = 128;
+
+    //Pawn structures a searcher remembers, 256 KB of keys and terms
+    private static final int PAWN_CACHE_ENTRIES = 1 << 14;
+
+    //Nodes between two looks at the clock
+    private static final int NODES_PER_TIME_CHECK = 2048;
+
+    private final MutableBoard board;
+    private final TranspositionTable transpositionTable;
+    private final int[][] principalVariation = new int[MAX_PLY][MAX_PLY];
+    private final int[] principalVariationLength = new int[MAX_PLY];
+    private final MoveOrdering moveOrdering = new MoveOrdering();
+    private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+    private final PawnCache pawnCache = new PawnCache(PAWN_CACHE_ENTRIES);
+    //Null when there are no bitbases to probe
+    private final EndgameBitbases bitbases;
+    //Set when the root itself is in a bitbase ending, see negamax
+    private final boolean rootInBitbase;
+
+    private final long deadlineNanos;
+    //Raised when the search is over for every thread, whatever the clock says
+    private final AtomicBoolean stopSignal;
+    private boolean canStop;
+    private boolean stopped;
+    private long nodes;
+
+    Searcher(final MutableBoard board, final TranspositionTable transpositionTable, final EndgameBitbases bitbases,
+             final long deadlineNanos, final AtomicBoolean stopSignal) {
+        this.board = board;
+        this.transpositionTable = transpositionTable;
+        this.bitbases = bitbases;
+        this.rootInBitbase = bitbases != null && bitbases.probe(board) != EndgameBitbases.UNKNOWN;
+        this.deadlineNanos = deadlineNanos;
+        this.stopSignal = stopSignal;
+        for(int ply = 0; ply < MAX_PLY; ply++){
+            this.movePickers[ply] = new MovePicker(this.moveOrdering);
+        }
+    }
+
+    //Score of the root searched to the depth. An iteration cut short by the deadline returns a
+    //meaningless score and leaves isStopped set. The first iteration always runs to the end so
+    //there is a move to play however short the time, unless the stop signal ends it.
+    int search(final int depth) {
+        this.stopped = false;
+        final int score = negamax(depth, 0, -Evaluation.INFINITY, Evaluation.INFINITY);
+        this.canStop = true;
+        return score;
+    }
+
+    boolean isStopped() {
+        return this.stopped;
+    }
+
+    long getNodes() {
+        return this.nodes;
+    }
+
+    //Moves of the principal variation of the last iteration, the best move first
+    int[] getPrincipalVariation() {
+        final int[] line = new int[this.principalVariationLength[0]];
+        System.arraycopy(this.principalVariation[0], 0, line, 0, line.length);
+        return line;
+    }
+
+    private int negamax(final int depth, final int ply, int alpha, final int beta) {
+        if((++this.nodes % NODES_PER_TIME_CHECK) == 0
+                && (this.stopSignal.get() || (this.canStop && System.nanoTime() - this.deadlineNanos >= 0))){
+            this.stopped = true;
+        }
+        if(this.stopped){
+            return 0;
+        }
+        this.principalVariationLength[ply] = ply;
+        if(ply > 0 && this.board.isRepetition()){
+            return Evaluation.DRAW;
+        }
+        //Bitbase draws end the line at once. Wins end it only when the search reaches the ending from
+        //outside, once the root is in it the search goes on so it finds the way to mate
+        if(ply > 0 && this.bitbases != null){
+            final int result = this.bitbases.probe(this.board);
+            if(result == EndgameBitbases.DRAW){
+                return Evaluation.DRAW;
+            }
+            if(result != EndgameBitbases.UNKNOWN && !this.rootInBitbase){
+                final int score = Evaluation.evaluate(this.board, this.pawnCache);
+                return result == EndgameBitbases.WIN ? Evaluation.KNOWN_WIN + score : -Evaluation.KNOWN_WIN + score;
+            }
+        }
+        if(depth <= 0){
+            return quiescence(ply, alpha, beta);
+        }
+        if(ply >= MAX_PLY - 1){
+            return Evaluation.evaluate(this.board, this.pawnCache);
+        }
+
+        final long key = this.board.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        int hashMove = MoveEncoding.NULL_MOVE;
+        if(entry != TranspositionTable.NO_ENTRY){
+            hashMove = TranspositionTable.move(entry);
+            //The root always searches, it has to come back with a move and a line
+            if(ply > 0 && TranspositionTable.depth(entry) >= depth){
+                final int score = Evaluation.fromTableScore(TranspositionTable.score(entry), ply);
+                final int bound = TranspositionTable.bound(entry);
+                if(bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)){
+                    return score;
+                }
+            }
+        }
+
+        final MovePicker movePicker = this.movePickers[ply];
+        movePicker.reset(this.board, ply, hashMove);
+
+        final int originalAlpha = alpha;
+        int bestScore = -Evaluation.INFINITY;
+        int bestMove = MoveEncoding.NULL_MOVE;
+        int move;
+        while((move = movePicker.next()) != MoveEncoding.NULL_MOVE){
+            this.board.makeMove(move);
+            final int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            this.board.unmakeMove();
+            if(this.stopped){
+                return 0;
+            }
+            if(score > bestScore){
+                bestScore = score;
+                bestMove = move;
+                if(score > alpha){
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if(alpha >= beta){
+                        if(!MoveEncoding.isCapture(move)){
+                            this.moveOrdering.updateQuietCutoff(move, ply, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if(bestMove == MoveEncoding.NULL_MOVE){
+            return this.board.isInCheck() ? -Evaluation.MATE + ply : Evaluation.DRAW;
+        }
+
+        final int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND :
+                bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        this.transpositionTable.store(key, depth, bound, Evaluation.toTableScore(bestScore, ply), bestMove);
+        return bestScore;
+    }
+
+    //Search captures only until the position is quiet, so the horizon never falls in the middle
+    //of an exchange. The side to move may stand pat on the static score instead of capturing,
+    //except in check, where every evasion is searched and having none is mate.
+    private int quiescence(final int ply, int alpha, final int beta) {
+        if((++this.nodes % NODES_PER_TIME_CHECK) == 0
+                && (this.stopSignal.get() || (this.canStop && System.nanoTime() - this.deadlineNanos >= 0))){
+            this.stopped = true;
+        }
+        if(this.stopped){
+            return 0;
+        }
+        if(ply >= MAX_PLY - 1){
+            return Evaluation.evaluate(this.board, this.pawnCache);
+        }
+
+        final boolean inCheck = this.board.isInCheck();
+        int bestScore = -Evaluation.INFINITY;
+        if(!inCheck){
+            bestScore = Evaluation.evaluate(this.board, this.pawnCache);
+            if(bestScore >= beta){
+                return bestScore;
+            }
+            if(bestScore > alpha){
+                alpha = bestScore;
+            }
+        }
+
+        final MovePicker movePicker = this.movePickers[ply];
+        if(inCheck){
+            movePicker.reset(this.board, ply, MoveEncoding.NULL_MOVE);
+        } else {
+            movePicker.resetForQuiescence(this.board, ply);
+        }
+        int move;
+        while((move = movePicker.next()) != MoveEncoding.NULL_MOVE){
+            this.board.makeMove(move);
+            final int score = -quiescence(ply + 1, -beta, -alpha);
+            this.board.unmakeMove();
+            if(this.stopped){
+                return 0;
+            }
+            if(score > bestScore){
+                bestScore = score;
+                if(score > alpha){
+                    alpha = score;
+                    if(alpha >= beta){
+                        break;
+                    }
+                }
+            }
+        }
+        if(inCheck && bestScore == -Evaluation.INFINITY){
+            return -Evaluation.MATE + ply;
+        }
+        return bestScore;
+    }
+
+    //The line of this ply is the move followed by the line of the next ply
+    private void updatePrincipalVariation(final int ply, final int move) {
+        this.principalVariation[ply][ply] = move;
+        final int childLength = this.principalVariationLength[ply + 1];
+        System.arraycopy(this.principalVariation[ply + 1], ply + 1, this.principalVariation[ply], ply + 1, childLength - ply - 1);
+        this.principalVariationLength[ply] = Math.max(childLength, ply + 1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.chess.engine.search;
+
+import java.util.Arrays;
+
+//Fixed-size hash table of search results, keyed by the Zobrist key of a board.
+//Every entry is two longs in one flat long[]: the key XORed with the data, and the data itself.
+//Threads read and write without locks; a torn write from two threads storing into the same slot
+//leaves a key word that no longer matches its data, so the probe treats it as a miss.
+public class TranspositionTable {
+
+    //Bound types, never 0 so an empty slot never decodes as a valid entry
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    //Returned by probe when nothing is stored for the key
+    public static final long NO_ENTRY = 0L;
+
+    //Two longs per entry, two entries per bucket
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int ENTRIES_PER_BUCKET = 2;
+    private static final int BYTES_PER_BUCKET = Long.BYTES * LONGS_PER_ENTRY * ENTRIES_PER_BUCKET;
+
+    //Data word layout
+    private static final int SCORE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final int GENERATION_SHIFT = 58;
+    private static final int GENERATION_MASK = 0x3F;
+
+    private final long[] table;
+    private final int bucketMask;
+    private int generation;
+
+    public TranspositionTable(final int sizeInMb) {
+        if(sizeInMb <= 0){
+            throw new IllegalArgumentException("Transposition table size must be positive: " + sizeInMb);
+        }
+        //Round the bucket count down to a power of two so the index is a simple mask
+        final long buckets = Long.highestOneBit(((long)sizeInMb << 20) / BYTES_PER_BUCKET);
+        final long longs = buckets * LONGS_PER_ENTRY * ENTRIES_PER_BUCKET;
+        if(longs > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException("Transposition table too large: " + sizeInMb + " MB");
+        }
+        this.table = new long[(int)longs];
+        this.bucketMask = (int)buckets - 1;
+        this.generation = 0;
+    }
+
+    //Stored data for the key, or NO_ENTRY. Decode it with the static accessors below.
+    public long probe(final long key) {
+        final int bucket = bucketIndex(key);
+        for(int entry = bucket; entry < bucket + LONGS_PER_ENTRY * ENTRIES_PER_BUCKET; entry += LONGS_PER_ENTRY){
+            final long data = this.table[entry + 1];
+            if((this.table[entry] ^ data) == key && data != NO_ENTRY){
+                return data;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    //The first entry of a bucket keeps the deepest result of the current search, the second
+    //one takes whatever the first one refused, so shallow results still get a place
+    //Scores must fit in a short, depths in a byte
+    public void store(final long key, final int depth, final int bound, final int score, final int move) {
+        final long data = pack(depth, bound, score, move, this.generation);
+        final int bucket = bucketIndex(key);
+
+        final long deepData = this.table[bucket + 1];
+        final boolean sameKey = (this.table[bucket] ^ deepData) == key;
+        if(deepData == NO_ENTRY || sameKey || depth >= depth(deepData) || generation(deepData) != this.generation){
+            this.table[bucket] = key ^ data;
+            this.table[bucket + 1] = data;
+        } else {
+            this.table[bucket + LONGS_PER_ENTRY] = key ^ data;
+            this.table[bucket + LONGS_PER_ENTRY + 1] = data;
+        }
+    }
+
+    //Called once per search so entries of earlier searches lose their depth priority
+    public void newSearch() {
+        this.generation = (this.generation + 1) & GENERATION_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+        this.generation = 0;
+    }
+
+    //Number of entries the table can hold
+    public int capacity() {
+        return this.table.length / LONGS_PER_ENTRY;
+    }
+
+    public static int move(final long data) {
+        return (int)data;
+    }
+
+    public static int score(final long data) {
+        return (short)(data >>> SCORE_SHIFT);
+    }
+
+    public static int depth(final long data) {
+        return (int)(data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(final long data) {
+        return (int)(data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int generation(final long data) {
+        return (int)(data >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    private static long pack(final int depth, final int bound, final int score, final int move, final int generation) {
+        return (move & 0xFFFFFFFFL)
+                | ((long)(score & 0xFFFF) << SCORE_SHIFT)
+                | ((long)(depth & 0xFF) << DEPTH_SHIFT)
+                | ((long)bound << BOUND_SHIFT)
+                | ((long)generation << GENERATION_SHIFT);
+    }
+
+    //The low bits of the key choose the bucket, the full key is checked on probe
+    private int bucketIndex(final long key) {
+        return ((int)key & this.bucketMask) * LONGS_PER_ENTRY * ENTRIES_PER_BUCKET;
+    }
+}
@@ -4,6 +4,8 @@ import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
+import com.chess.engine.pgn.PgnReader;
+import com.chess.engine.pgn.SanResolver;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.MoveTransition;
 
@@ -70,7 +72,10 @@ public class Table {
         openPGN.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                System.out.println("Open PGN File");
+                final JFileChooser chooser = new JFileChooser();
+                if(chooser.showOpenDialog(gameFrame) == JFileChooser.APPROVE_OPTION){
+                    loadPGNFile(chooser.getSelectedFile());
+                }
             }
         });
         exitMenu.addActionListener(new ActionListener() {
@@ -84,6 +89,23 @@ public class Table {
         return fileMenu;
     }
 
+    //Show the final position of the first game in the file. Only that game is read, however large the file
+    private void loadPGNFile(final File pgnFile) {
+        try(final PgnReader pgnReader = PgnReader.open(pgnFile.toPath())){
+            if(!pgnReader.hasNext()){
+                JOptionPane.showMessageDialog(this.gameFrame, "No game found in " + pgnFile.getName());
+                return;
+            }
+            this.chessBoard = pgnReader.next().replay(new SanResolver());
+            clearTiles();
+            this.boardPanel.drawBoard(this.chessBoard);
+        } catch(IOException | RuntimeException e){
+            //Unreadable files and games the engine cannot set up are reported instead of reaching the event thread
+            JOptionPane.showMessageDialog(this.gameFrame, "Cannot load " + pgnFile.getName() + ": " + e.getMessage(),
+                    "Load PGN File", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     private class BoardPanel extends JPanel{
         final List<TilePanel> boardTiles;
         BoardPanel(){